@@ -0,0 +1,170 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Baseline for the OOETL hot paths: {@code CSVExtractor.extract},
+ * {@code ProductTransformer.applyTransformations},
+ * {@code calculatePriceRange}, {@code Product.toCsvString} and
+ * {@code CSVLoader.load}, each run over generated datasets of increasing size.
+ *
+ * The per-row benchmarks handle one row per call, cycling through the
+ * dataset, so their score is rows per second and the gc profiler's
+ * {@code gc.alloc.rate.norm} is bytes allocated per row. Extract and load
+ * handle the whole file per call and report milliseconds per file.
+ *
+ * The datasets use a skewed category mix, so a few categories (Electronics
+ * among them) make up most rows, and prices spread across the 10/100/500
+ * range boundaries.
+ *
+ * Build with {@code mvn -P jmh -DskipTests package}, then from the hw1_lsp
+ * directory:
+ * <pre>
+ * java -jar target/benchmarks.jar EtlHotPath -prof gc
+ * java -jar target/benchmarks.jar EtlHotPath -p rows=10000000
+ * </pre>
+ * The default sizes are 1000, 100000 and 1000000 rows. Each fork gets a 4 GB
+ * heap, which 10000000 rows needs since extract keeps every row in memory.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EtlHotPathBenchmark {
+
+    private static final String HEADER = "ProductID,Name,Price,Category";
+    private static final String[] CATEGORIES = {
+        "Electronics", "Home", "Clothing", "Toys", "Books", "Garden", "Sports", "Grocery",
+        "Beauty", "Automotive", "Office", "Pets", "Music", "Tools", "Baby", "Jewelry"
+    };
+
+    @Param({"1000", "100000", "1000000"})
+    int rows;
+
+    private Path dir;
+    private OOETL.CSVExtractor extractor;
+    private OOETL.ProductTransformer transformer;
+    private OOETL.ProductTransformer fixedPoint;
+    private OOETL.CSVLoader loader;
+    private Product[] products;
+    private List<Product> transformed;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("etl-bench");
+        Path input = dir.resolve("products.csv");
+        generate(input, rows, new Random(42));
+        extractor = new OOETL.CSVExtractor(input.toString());
+        transformer = new OOETL.ProductTransformer();
+        fixedPoint = new OOETL.ProductTransformer(true);
+        loader = new OOETL.CSVLoader(dir.resolve("transformed_products.csv").toString());
+        List<Product> extracted = extractor.extract();
+        products = extracted.toArray(new Product[0]);
+        transformed = transformer.transform(extracted);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Product> extract() throws IOException {
+        return extractor.extract();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Product applyTransformations() {
+        return transformer.applyTransformations(nextProduct());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Product applyTransformationsFixedPoint() {
+        return fixedPoint.applyTransformations(nextProduct());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public String calculatePriceRange() {
+        return transformer.calculatePriceRange(nextProduct().price());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public String toCsvString() {
+        return transformed.get(nextIndex()).toCsvString();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void load() throws IOException {
+        loader.load(transformed, HEADER);
+    }
+
+    private Product nextProduct() {
+        return products[nextIndex()];
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = i + 1 == products.length ? 0 : i + 1;
+        return i;
+    }
+
+    /**
+     * Writes {@code rows} products. Categories follow a cubic skew, so the
+     * first few of {@link #CATEGORIES} dominate, and prices are spread over
+     * 0.01 to 1200.00 so every price range is hit.
+     */
+    private static void generate(Path path, int rows, Random random) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.newLine();
+            for (int i = 1; i <= rows; i++) {
+                String category = CATEGORIES[(int) (CATEGORIES.length * Math.pow(random.nextDouble(), 3))];
+                BigDecimal price = BigDecimal.valueOf(1 + random.nextInt(120_000), 2);
+                out.write(i + ",Item " + i + " " + category.toLowerCase(Locale.ROOT) + "," + price.toPlainString()
+                    + "," + category);
+                out.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the config-driven {@link RuleEngine} with hand-written transform
+ * code. The built-in {@link OOETL.ProductTransformer} is measured against the
+ * default rules.conf, and an if/else chain written out for 60 categories and
+ * eight price ranges (what adding rules by hand would produce) is measured
+ * against the same rules compiled by the engine.
+ *
+ * Every call transforms one row, cycling through the dataset, so scores are
+ * in nanoseconds per row.
+ *
+ * Build with {@code mvn -P jmh -DskipTests package}, then from the hw1_lsp
+ * directory (the default rules are read from data/rules.conf):
+ * <pre>
+ * java -jar target/benchmarks.jar RuleEngine
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RuleEngineBenchmark {
+
+    private static final int CATEGORIES = 60;
+
+    @Param({"1000000"})
+    int rows;
+
+    private Product[] products;
+    private int next;
+    private OOETL.ProductTransformer handWritten;
+    private OOETL.ProductTransformer handWrittenFixed;
+    private OOETL.ProductTransformer defaultRules;
+    private OOETL.ProductTransformer largeRules;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        products = generate(rows, new Random(42));
+        RuleEngine defaults = RuleEngine.load("data" + File.separator + "rules.conf");
+        RuleEngine large = RuleEngine.parse(new StringReader(largeRuleSet()), "generated");
+        handWritten = new OOETL.ProductTransformer();
+        handWrittenFixed = new OOETL.ProductTransformer(true);
+        defaultRules = new OOETL.ProductTransformer(false, defaults);
+        largeRules = new OOETL.ProductTransformer(false, large);
+    }
+
+    /**
+     * The built-in if/else chain.
+     */
+    @Benchmark
+    public Product handWrittenChain() {
+        return handWritten.applyTransformations(nextProduct());
+    }
+
+    /**
+     * The built-in chain with fixed-point prices.
+     */
+    @Benchmark
+    public Product handWrittenFixedPoint() {
+        return handWrittenFixed.applyTransformations(nextProduct());
+    }
+
+    /**
+     * rules.conf, which holds one category rule.
+     */
+    @Benchmark
+    public Product defaultRules() {
+        return defaultRules.applyTransformations(nextProduct());
+    }
+
+    /**
+     * The 60-category rule set written out by hand.
+     */
+    @Benchmark
+    public Product handWrittenLargeChain() {
+        return largeChain(nextProduct());
+    }
+
+    /**
+     * The same 60-category rule set compiled by the engine.
+     */
+    @Benchmark
+    public Product compiledLargeRules() {
+        return largeRules.applyTransformations(nextProduct());
+    }
+
+    private Product nextProduct() {
+        int i = next;
+        next = i + 1 == products.length ? 0 : i + 1;
+        return products[i];
+    }
+
+    private static final BigDecimal[] CHAIN_FACTORS = new BigDecimal[CATEGORIES];
+    private static final BigDecimal[] CHAIN_ABOVE = new BigDecimal[CATEGORIES];
+    private static final String[] CHAIN_NAMES = new String[CATEGORIES];
+    private static final BigDecimal[] CHAIN_BOUNDS = new BigDecimal[7];
+    private static final String[] CHAIN_LABELS = {"Tiny", "Low", "Medium", "Mid", "High", "Higher", "Premium", "Luxury"};
+
+    static {
+        for (int i = 0; i < CATEGORIES; i++) {
+            CHAIN_NAMES[i] = i == 0 ? "Electronics" : "Category" + i;
+            CHAIN_FACTORS[i] = i == 0 ? new BigDecimal("0.90") : new BigDecimal("0." + (50 + i % 50));
+            CHAIN_ABOVE[i] = i == 0 ? new BigDecimal("500.00") : new BigDecimal((100 + i * 10) + ".00");
+        }
+        int[] bounds = {1, 10, 50, 100, 250, 500, 900};
+        for (int i = 0; i < bounds.length; i++) {
+            CHAIN_BOUNDS[i] = new BigDecimal(bounds[i] + ".00");
+        }
+    }
+
+    /**
+     * The large rule set as sequential equalsIgnoreCase/compareTo tests, the
+     * way ProductTransformer would look with every rule written into it.
+     */
+    private static Product largeChain(Product product) {
+        BigDecimal price = product.price();
+        String category = product.category();
+        for (int i = 0; i < CATEGORIES; i++) {
+            if (category.equalsIgnoreCase(CHAIN_NAMES[i])) {
+                price = price.multiply(CHAIN_FACTORS[i]).setScale(2, RoundingMode.HALF_UP);
+                if (price.compareTo(CHAIN_ABOVE[i]) > 0) {
+                    category = "Premium " + CHAIN_NAMES[i];
+                }
+                break;
+            }
+        }
+        String range = CHAIN_LABELS[CHAIN_LABELS.length - 1];
+        for (int i = 0; i < CHAIN_BOUNDS.length; i++) {
+            if (price.compareTo(CHAIN_BOUNDS[i]) <= 0) {
+                range = CHAIN_LABELS[i];
+                break;
+            }
+        }
+        return new Product(product.productId(), product.name().toUpperCase(), price, category, range);
+    }
+
+    /**
+     * Rows spread over {@value #CATEGORIES} categories with a skewed
+     * distribution, so a few categories dominate as in real feeds.
+     */
+    private static Product[] generate(int rows, Random random) {
+        Product[] products = new Product[rows];
+        for (int i = 0; i < rows; i++) {
+            int category = (int) (CATEGORIES * Math.pow(random.nextDouble(), 3));
+            String name = category == 0 ? "Electronics" : "Category" + category;
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(120_000), 2);
+            products[i] = new Product(i, "Item" + i, price, name, null);
+        }
+        return products;
+    }
+
+    private static String largeRuleSet() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("category Electronics multiply 0.90 above 500.00 recategorize \"Premium Electronics\"\n");
+        for (int i = 1; i < CATEGORIES; i++) {
+            sb.append("category Category").append(i)
+              .append(" multiply 0.").append(50 + i % 50)
+              .append(" above ").append(100 + i * 10).append(".00")
+              .append(" recategorize \"Premium Category").append(i).append("\"\n");
+        }
+        String[] labels = {"Tiny", "Low", "Medium", "Mid", "High", "Higher", "Premium"};
+        int[] bounds = {1, 10, 50, 100, 250, 500, 900};
+        for (int i = 0; i < labels.length; i++) {
+            sb.append("range ").append(labels[i]).append(' ').append(bounds[i]).append(".00\n");
+        }
+        sb.append("range Luxury\n");
+        return sb.toString();
+    }
+}
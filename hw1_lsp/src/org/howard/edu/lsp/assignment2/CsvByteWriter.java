@@ -0,0 +1,309 @@
+package org.howard.edu.lsp.assignment2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes CSV output as UTF-8 bytes straight into a reusable buffer and hands
+ * the buffer to a channel in large blocks. Numbers are formatted digit by digit
+ * and text is encoded char by char, so writing a row builds no Strings.
+ *
+ * Text fields are quoted the same way as {@link CsvTokenizer#quoteIfNeeded},
+ * and rows end with {@link System#lineSeparator()} like
+ * {@link java.io.BufferedWriter#newLine()}, so the output matches what a
+ * UTF-8 BufferedWriter would produce.
+ */
+public final class CsvByteWriter implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final WritableByteChannel channel;
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[20];
+    private int count;
+    private long written;
+
+    /**
+     * @param channel destination of the encoded bytes; closed by {@link #close()}
+     */
+    public CsvByteWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param channel    destination of the encoded bytes; closed by {@link #close()}
+     * @param bufferSize bytes collected before each channel write, at least 64
+     */
+    public CsvByteWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.bytes = new byte[Math.max(bufferSize, 64)];
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Creates or truncates a file and opens a writer on it.
+     *
+     * @param path the output file
+     * @return a writer that must be closed
+     */
+    public static CsvByteWriter open(Path path) throws IOException {
+        return new CsvByteWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Opens a writer that adds to the end of a file, creating it if needed.
+     *
+     * @param path the output file
+     * @return a writer that must be closed
+     */
+    public static CsvByteWriter append(Path path) throws IOException {
+        return new CsvByteWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Writes text exactly as given, with no quoting. Used for header lines.
+     *
+     * @param text the text to write
+     */
+    public void writeRaw(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            i = writeChar(text, i);
+        }
+    }
+
+    /**
+     * Writes bytes that are already UTF-8 encoded, with no quoting. Lets a
+     * caller that repeats the same text encode it once up front.
+     *
+     * @param utf8 the bytes to write
+     */
+    public void writeRaw(byte[] utf8) throws IOException {
+        if (utf8.length > bytes.length - count) {
+            flush();
+            if (utf8.length > bytes.length) {
+                ByteBuffer large = ByteBuffer.wrap(utf8);
+                while (large.hasRemaining()) {
+                    channel.write(large);
+                }
+                written += utf8.length;
+                return;
+            }
+        }
+        System.arraycopy(utf8, 0, bytes, count, utf8.length);
+        count += utf8.length;
+    }
+
+    /**
+     * Writes a text field, quoting it if it contains a comma, quote or line break.
+     *
+     * @param value the field value
+     */
+    public void writeText(String value) throws IOException {
+        if (!needsQuotes(value)) {
+            writeRaw(value);
+            return;
+        }
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                writeByte('"');
+            }
+            i = writeChar(value, i);
+        }
+        writeByte('"');
+    }
+
+    /**
+     * Writes an int in decimal.
+     *
+     * @param value the value
+     */
+    public void writeInt(int value) throws IOException {
+        writeLong(value);
+    }
+
+    /**
+     * Writes a long in decimal.
+     *
+     * @param value the value
+     */
+    public void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeRaw(Long.toString(value));
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            bytes[count++] = '-';
+            value = -value;
+        }
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        System.arraycopy(digits, start, bytes, count, digits.length - start);
+        count += digits.length - start;
+    }
+
+    /**
+     * Writes a decimal in the same form as {@link BigDecimal#toPlainString()}.
+     * Values that fit in a long with a non-negative scale are formatted
+     * directly; anything else goes through toPlainString.
+     *
+     * @param value the value
+     */
+    public void writeDecimal(BigDecimal value) throws IOException {
+        int scale = value.scale();
+        if (scale < 0 || scale > 18 || value.precision() > 18) {
+            writeRaw(value.toPlainString());
+            return;
+        }
+        // movePointRight keeps the compact long form, so longValue() is a plain read
+        long unscaled = value.movePointRight(scale).longValue();
+        writeFixed(unscaled, scale);
+    }
+
+    /**
+     * Writes {@code unscaled / 10^scale} with exactly {@code scale} decimals.
+     *
+     * @param unscaled the digits, e.g. 1299 for 12.99
+     * @param scale    number of decimal places, 0 to 18
+     */
+    public void writeFixed(long unscaled, int scale) throws IOException {
+        if (scale == 0) {
+            writeLong(unscaled);
+            return;
+        }
+        if (unscaled == Long.MIN_VALUE) {
+            writeRaw(BigDecimal.valueOf(unscaled, scale).toPlainString());
+            return;
+        }
+        // sign, up to 19 integer digits, point and up to 18 decimals
+        ensure(40);
+        long magnitude = Math.abs(unscaled);
+        if (unscaled < 0) {
+            bytes[count++] = '-';
+        }
+        long pow = 1;
+        for (int i = 0; i < scale; i++) {
+            pow *= 10;
+        }
+        writeLong(magnitude / pow);
+        bytes[count++] = '.';
+        long fraction = magnitude % pow;
+        for (int i = count + scale - 1; i >= count; i--) {
+            bytes[i] = (byte) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        count += scale;
+    }
+
+    /**
+     * Writes the field separator.
+     */
+    public void comma() throws IOException {
+        writeByte(',');
+    }
+
+    /**
+     * Ends the current row with the platform line separator.
+     */
+    public void endRow() throws IOException {
+        ensure(LINE_SEPARATOR.length);
+        System.arraycopy(LINE_SEPARATOR, 0, bytes, count, LINE_SEPARATOR.length);
+        count += LINE_SEPARATOR.length;
+    }
+
+    /**
+     * @return the number of bytes written so far, including buffered bytes
+     */
+    public long bytesWritten() {
+        return written + count;
+    }
+
+    /**
+     * Writes out any buffered bytes.
+     */
+    public void flush() throws IOException {
+        buffer.clear().limit(count);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        written += count;
+        count = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeByte(char b) throws IOException {
+        ensure(1);
+        bytes[count++] = (byte) b;
+    }
+
+    /**
+     * Encodes the char at {@code i} as UTF-8, consuming its low surrogate too
+     * if it starts a pair. Unpaired surrogates become '?', as in String.getBytes.
+     *
+     * @return the index of the last char consumed
+     */
+    private int writeChar(String s, int i) throws IOException {
+        ensure(4);
+        char c = s.charAt(i);
+        if (c < 0x80) {
+            bytes[count++] = (byte) c;
+        } else if (c < 0x800) {
+            bytes[count++] = (byte) (0xC0 | (c >> 6));
+            bytes[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                bytes[count++] = (byte) (0xF0 | (cp >> 18));
+                bytes[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                bytes[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                bytes[count++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                bytes[count++] = '?';
+            }
+        } else {
+            bytes[count++] = (byte) (0xE0 | (c >> 12));
+            bytes[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            bytes[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return i;
+    }
+
+    private void ensure(int needed) throws IOException {
+        if (count + needed > bytes.length) {
+            flush();
+        }
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,385 @@
+package org.howard.edu.lsp.assignment2;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Splits CSV records into fields without allocating anything per row.
+ * Records are read into a reusable char buffer and each field is tracked as a
+ * start/end pair into that buffer, so numeric fields can be parsed in place and
+ * Strings are only created for the fields a caller actually asks for.
+ *
+ * Quoting follows RFC 4180: a field that starts with '"' runs until the next
+ * unpaired '"', may contain commas and line breaks, and uses "" for a literal
+ * quote. Records end at "\n", "\r\n" or a lone "\r", like
+ * {@link java.io.BufferedReader#readLine()}.
+ */
+public final class CsvTokenizer {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final Reader in;
+    private char[] buf;
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    private int recordStart;
+    private int recordEnd;
+    private int fieldStart;
+    private int fieldCount;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private boolean[] quoted = new boolean[8];
+    private boolean[] escaped = new boolean[8];
+
+    private long nextLine = 1;
+    private long lineNumber;
+
+    /**
+     * Creates a tokenizer that pulls characters from a reader.
+     * The reader is read in large blocks, so it does not need to be buffered.
+     *
+     * @param in source of CSV text
+     */
+    public CsvTokenizer(Reader in) {
+        this.in = in;
+        this.buf = new char[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * Creates a tokenizer over characters that are already in memory.
+     *
+     * @param chars  buffer holding the CSV text
+     * @param offset index of the first character
+     * @param length number of characters to read
+     */
+    public CsvTokenizer(char[] chars, int offset, int length) {
+        this.in = null;
+        this.buf = chars;
+        this.pos = offset;
+        this.limit = offset + length;
+        this.eof = true;
+    }
+
+    /**
+     * Advances to the next record.
+     *
+     * @return false once the input is exhausted
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if a quoted field is not closed properly
+     */
+    public boolean next() throws IOException {
+        fieldCount = 0;
+        recordStart = pos;
+        if (pos >= limit && !fill()) {
+            return false;
+        }
+        lineNumber = nextLine;
+
+        while (true) {
+            fieldStart = pos;
+            if (pos < limit || fill()) {
+                if (buf[pos] == '"') {
+                    readQuotedField();
+                } else {
+                    while ((pos < limit || fill()) && !isDelimiter(buf[pos])) {
+                        pos++;
+                    }
+                    addField(fieldStart, pos, false, false);
+                }
+            } else {
+                addField(pos, pos, false, false);
+            }
+
+            if (pos >= limit) {
+                // end of input terminates the last record
+                recordEnd = pos;
+                return true;
+            }
+            char c = buf[pos];
+            if (c == ',') {
+                pos++;
+                continue;
+            }
+            recordEnd = pos;
+            pos++;
+            if (c == '\r' && (pos < limit || fill()) && buf[pos] == '\n') {
+                pos++;
+            }
+            nextLine++;
+            return true;
+        }
+    }
+
+    /**
+     * Consumes a quoted field starting at {@code pos}, leaving {@code pos} on
+     * the delimiter that follows the closing quote.
+     */
+    private void readQuotedField() throws IOException {
+        boolean hasEscapes = false;
+        pos++;
+        while (true) {
+            if (pos >= limit && !fill()) {
+                throw new IllegalArgumentException(
+                    "Unterminated quoted field starting on line " + lineNumber);
+            }
+            char c = buf[pos];
+            if (c == '"') {
+                if ((pos + 1 < limit || fill(1)) && buf[pos + 1] == '"') {
+                    hasEscapes = true;
+                    pos += 2;
+                    continue;
+                }
+                break;
+            }
+            if (c == '\n' || (c == '\r' && !((pos + 1 < limit || fill(1)) && buf[pos + 1] == '\n'))) {
+                nextLine++;
+            }
+            pos++;
+        }
+        addField(fieldStart + 1, pos, true, hasEscapes);
+        pos++; // closing quote
+        if ((pos < limit || fill()) && !isDelimiter(buf[pos])) {
+            throw new IllegalArgumentException(
+                "Unexpected character after quoted field on line " + nextLine);
+        }
+    }
+
+    /**
+     * @return the number of fields in the current record
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return the 1-based line number on which the current record starts
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return the number of line breaks consumed so far, including those inside quoted fields
+     */
+    public long linesRead() {
+        return nextLine - 1;
+    }
+
+    /**
+     * Returns whether the current record is an empty or whitespace-only line.
+     *
+     * @return true if the record has a single unquoted field made only of whitespace
+     */
+    public boolean isBlankLine() {
+        if (fieldCount != 1 || quoted[0]) {
+            return false;
+        }
+        for (int i = recordStart; i < recordEnd; i++) {
+            if (buf[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the current record exactly as it appears in the input,
+     * without its line terminator.
+     *
+     * @return the raw record text
+     */
+    public String record() {
+        return new String(buf, recordStart, recordEnd - recordStart);
+    }
+
+    /**
+     * Returns a field as a String, with surrounding quotes removed and
+     * doubled quotes collapsed.
+     *
+     * @param index 0-based field index
+     * @return the field value
+     */
+    public String field(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int end = ends[index];
+        if (!escaped[index]) {
+            return new String(buf, start, end - start);
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            sb.append(buf[i]);
+            if (buf[i] == '"') {
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns a field through a dictionary, so repeated values share one
+     * String and a value already in the dictionary is not copied at all.
+     *
+     * @param index      0-based field index
+     * @param dictionary dictionary for this column
+     * @return the canonical field value
+     */
+    public String field(int index, ValueDictionary dictionary) {
+        checkIndex(index);
+        if (escaped[index]) {
+            return dictionary.intern(field(index));
+        }
+        return dictionary.intern(buf, starts[index], ends[index] - starts[index]);
+    }
+
+    /**
+     * Parses a field as a decimal int directly from the buffer.
+     *
+     * @param index 0-based field index
+     * @return the parsed value
+     * @throws NumberFormatException with the same message as {@link Integer#parseInt(String)}
+     */
+    public int parseInt(int index) {
+        checkIndex(index);
+        if (escaped[index]) {
+            return Integer.parseInt(field(index));
+        }
+        int i = starts[index];
+        int end = ends[index];
+        if (i == end) {
+            throw numberFormat(index);
+        }
+        boolean negative = false;
+        int limitValue = -Integer.MAX_VALUE;
+        char first = buf[i];
+        if (first == '-' || first == '+') {
+            if (end - i == 1) {
+                throw numberFormat(index);
+            }
+            if (first == '-') {
+                negative = true;
+                limitValue = Integer.MIN_VALUE;
+            }
+            i++;
+        }
+        // accumulate negatively so Integer.MIN_VALUE parses without overflow
+        int multmin = limitValue / 10;
+        int result = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(buf[i], 10);
+            if (digit < 0 || result < multmin) {
+                throw numberFormat(index);
+            }
+            result *= 10;
+            if (result < limitValue + digit) {
+                throw numberFormat(index);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parses a field as a BigDecimal straight from the buffer,
+     * without an intermediate String.
+     *
+     * @param index 0-based field index
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a valid decimal
+     */
+    public BigDecimal parseDecimal(int index) {
+        checkIndex(index);
+        if (escaped[index]) {
+            return new BigDecimal(field(index));
+        }
+        return new BigDecimal(buf, starts[index], ends[index] - starts[index]);
+    }
+
+    /**
+     * Quotes a value for output if it contains a delimiter, quote or line
+     * break, so that it reads back as the same single field.
+     *
+     * @param value the field value
+     * @return the value, quoted only when needed
+     */
+    public static String quoteIfNeeded(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == ',' || c == '\n' || c == '\r';
+    }
+
+    private void addField(int start, int end, boolean isQuoted, boolean hasEscapes) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+            quoted = Arrays.copyOf(quoted, fieldCount * 2);
+            escaped = Arrays.copyOf(escaped, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        quoted[fieldCount] = isQuoted;
+        escaped[fieldCount] = hasEscapes;
+        fieldCount++;
+    }
+
+    private boolean fill() throws IOException {
+        return fill(0);
+    }
+
+    /**
+     * Reads more input so that at least {@code ahead + 1} characters are
+     * available from {@code pos}. The current record is moved to the front of
+     * the buffer first and every position recorded so far is shifted with it.
+     */
+    private boolean fill(int ahead) throws IOException {
+        if (eof) {
+            return pos + ahead < limit;
+        }
+        while (pos + ahead >= limit) {
+            if (recordStart > 0) {
+                int moved = recordStart;
+                System.arraycopy(buf, recordStart, buf, 0, limit - recordStart);
+                for (int i = 0; i < fieldCount; i++) {
+                    starts[i] -= moved;
+                    ends[i] -= moved;
+                }
+                limit -= moved;
+                pos -= moved;
+                fieldStart -= moved;
+                recordStart = 0;
+            } else if (limit == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            int n = in.read(buf, limit, buf.length - limit);
+            if (n < 0) {
+                eof = true;
+                return pos + ahead < limit;
+            }
+            limit += n;
+        }
+        return true;
+    }
+
+    private void checkIndex(int index) {
+        if (index >= fieldCount) {
+            throw new IndexOutOfBoundsException(
+                "Line " + lineNumber + " has " + fieldCount + " fields, field " + index + " requested");
+        }
+    }
+
+    private NumberFormatException numberFormat(int index) {
+        return new NumberFormatException("For input string: \"" + field(index) + "\"");
+    }
+}
@@ -0,0 +1,163 @@
+package org.howard.edu.lsp.assignment2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * JUnit 5 test class for CsvTokenizer class
+ */
+public class CsvTokenizerTesting {
+
+    @Test
+    @DisplayName("Test next() and field(int index): should split plain records on commas")
+    void testPlainRecords() throws IOException {
+        CsvTokenizer tokenizer = tokenize("ProductID,Name,Price\n1,Book,12.50\n2,,3\n");
+        assertTrue(tokenizer.next(), "Header should be read");
+        assertEquals(3, tokenizer.fieldCount(), "Header should have 3 fields");
+        assertTrue(tokenizer.next(), "First row should be read");
+        assertEquals(1, tokenizer.parseInt(0), "ProductID should be 1");
+        assertEquals("Book", tokenizer.field(1), "Name should be Book");
+        assertEquals(new BigDecimal("12.50"), tokenizer.parseDecimal(2), "Price should keep its scale");
+        assertTrue(tokenizer.next(), "Second row should be read");
+        assertEquals("", tokenizer.field(1), "An empty field should be an empty string");
+        assertEquals("2,,3", tokenizer.record(), "record() should return the raw line");
+        assertFalse(tokenizer.next(), "Input should be exhausted");
+    }
+
+    @Test
+    @DisplayName("Test field(int index): doubled quotes inside a quoted field should collapse to one")
+    void testEscapedQuotes() throws IOException {
+        CsvTokenizer tokenizer = tokenize("1,\"Say \"\"hi\"\"\",\"\"\"\"\n");
+        assertTrue(tokenizer.next(), "Row should be read");
+        assertEquals("Say \"hi\"", tokenizer.field(1), "Doubled quotes should collapse");
+        assertEquals("\"", tokenizer.field(2), "A field of one escaped quote should be a single quote");
+        assertEquals("1,\"Say \"\"hi\"\"\",\"\"\"\"", tokenizer.record(), "record() should keep the escapes");
+    }
+
+    @Test
+    @DisplayName("Test field(int index): commas and line breaks inside quotes should stay in the field")
+    void testQuotedCommasAndNewlines() throws IOException {
+        CsvTokenizer tokenizer = tokenize("1,\"Pens, blue\",2.00\n2,\"Two\nlines\",3.00\n3,End,4.00");
+        assertTrue(tokenizer.next(), "First row should be read");
+        assertEquals(3, tokenizer.fieldCount(), "A quoted comma should not split the field");
+        assertEquals("Pens, blue", tokenizer.field(1), "Quoted comma should be kept");
+        assertTrue(tokenizer.next(), "Second row should be read");
+        assertEquals("Two\nlines", tokenizer.field(1), "Quoted line break should be kept");
+        assertEquals(new BigDecimal("3.00"), tokenizer.parseDecimal(2), "Field after the line break should parse");
+        assertTrue(tokenizer.next(), "Last row without a line terminator should be read");
+        assertEquals("End", tokenizer.field(1), "Last row should be complete");
+        assertFalse(tokenizer.next(), "Input should be exhausted");
+    }
+
+    @Test
+    @DisplayName("Test next(): CRLF line endings should not leave a carriage return in the last field")
+    void testCrlf() throws IOException {
+        CsvTokenizer tokenizer = tokenize("a,b\r\n1,\"x\r\ny\"\r\n2,z\r\n");
+        assertTrue(tokenizer.next(), "Header should be read");
+        assertEquals("b", tokenizer.field(1), "CR should not be part of the field");
+        assertTrue(tokenizer.next(), "First row should be read");
+        assertEquals("x\r\ny", tokenizer.field(1), "Quoted CRLF should be kept as is");
+        assertTrue(tokenizer.next(), "Second row should be read");
+        assertEquals("z", tokenizer.field(1), "CR should not be part of the field");
+        assertEquals(4, tokenizer.lineNumber(), "Quoted CRLF should count as one line break");
+        assertFalse(tokenizer.next(), "Input should be exhausted");
+    }
+
+    @Test
+    @DisplayName("Test next(): should throw IllegalArgumentException for broken quoting")
+    void testUnterminatedQuote() throws IOException {
+        CsvTokenizer tokenizer = tokenize("1,ok\n2,\"never closed\n3,more\n");
+        assertTrue(tokenizer.next(), "Row before the broken one should be read");
+        Exception unterminated = assertThrows(IllegalArgumentException.class, () -> {
+            tokenizer.next();
+        });
+        assertEquals("Unterminated quoted field starting on line 2", unterminated.getMessage());
+
+        CsvTokenizer trailing = tokenize("1,\"closed\"x,2\n");
+        Exception unexpected = assertThrows(IllegalArgumentException.class, () -> {
+            trailing.next();
+        });
+        assertEquals("Unexpected character after quoted field on line 1", unexpected.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test lineNumber() and linesRead(): should count line breaks inside quoted fields")
+    void testLineNumbers() throws IOException {
+        CsvTokenizer tokenizer = tokenize("h\n\"a\nb\nc\"\n\nd\n");
+        assertTrue(tokenizer.next(), "Header should be read");
+        assertEquals(1, tokenizer.lineNumber(), "Header is on line 1");
+        assertTrue(tokenizer.next(), "Multi-line record should be read");
+        assertEquals(2, tokenizer.lineNumber(), "Record starts on line 2");
+        assertTrue(tokenizer.next(), "Blank line should be read");
+        assertEquals(5, tokenizer.lineNumber(), "Blank line follows the three lines of the record");
+        assertTrue(tokenizer.isBlankLine(), "Record should be blank");
+        assertTrue(tokenizer.next(), "Last record should be read");
+        assertEquals(6, tokenizer.lineNumber(), "Last record is on line 6");
+        assertEquals(6, tokenizer.linesRead(), "Six line breaks should have been consumed");
+        assertFalse(tokenizer.next(), "Input should be exhausted");
+    }
+
+    @Test
+    @DisplayName("Test next(): records should split the same when the reader returns one character at a time")
+    void testSlowReader() throws IOException {
+        String csv = "1,\"a \"\"b\"\"\r\nc\",2.5\r\n2,d,3\r\n";
+        CsvTokenizer tokenizer = new CsvTokenizer(new OneCharReader(csv));
+        assertTrue(tokenizer.next(), "First row should be read");
+        assertEquals("a \"b\"\r\nc", tokenizer.field(1), "Escapes and CRLF should survive buffer refills");
+        assertTrue(tokenizer.next(), "Second row should be read");
+        assertEquals("d", tokenizer.field(1), "Second row should be intact");
+        assertEquals(3, tokenizer.lineNumber(), "Second row starts on line 3");
+        assertFalse(tokenizer.next(), "Input should be exhausted");
+    }
+
+    @Test
+    @DisplayName("Test CsvTokenizer(char[] chars, int offset, int length): should read only the given range")
+    void testCharArrayRange() throws IOException {
+        char[] chars = "skip\n1,x\n2,y\nskip".toCharArray();
+        CsvTokenizer tokenizer = new CsvTokenizer(chars, 5, 8);
+        assertTrue(tokenizer.next(), "First row in the range should be read");
+        assertEquals("x", tokenizer.field(1), "First row should be 1,x");
+        assertTrue(tokenizer.next(), "Second row in the range should be read");
+        assertEquals("y", tokenizer.field(1), "Second row should be 2,y");
+        assertFalse(tokenizer.next(), "Nothing after the range should be read");
+    }
+
+    private static CsvTokenizer tokenize(String csv) {
+        return new CsvTokenizer(new StringReader(csv));
+    }
+
+    /**
+     * Hands out one character per read, so every field straddles a refill.
+     */
+    private static final class OneCharReader extends Reader {
+        private final String text;
+        private int pos;
+
+        OneCharReader(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (pos == text.length()) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            cbuf[off] = text.charAt(pos++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.howard.edu.lsp.assignment2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Collects input rows that could not be parsed, so a lenient run can skip
+ * them and keep going instead of failing on the first bad line.
+ *
+ * Each rejected row is written as a CSV record {@code LineNumber,Reason,Record}
+ * holding the 1-based input line, what was wrong with it and the raw row text.
+ * The run is aborted with an {@link IllegalStateException} once more than
+ * {@code maxRejected} rows have been rejected, or once the share of rejected
+ * rows exceeds {@code maxRejectRate}. The rate is only enforced after
+ * {@link #RATE_SAMPLE_ROWS} rows, so a bad row near the top of a file does
+ * not trip it on its own.
+ */
+public final class DeadLetterFile implements Closeable {
+
+    /** Rows that must be seen before the reject rate is checked. */
+    public static final long RATE_SAMPLE_ROWS = 1000;
+
+    private final Path path;
+    private final long maxRejected;
+    private final double maxRejectRate;
+    private final CsvByteWriter writer;
+    private long rejected;
+
+    /**
+     * Creates or truncates the dead-letter file and writes its header.
+     *
+     * @param path          the dead-letter file
+     * @param maxRejected   most rows that may be rejected before the run aborts
+     * @param maxRejectRate largest tolerated fraction of rejected rows, 0 to 1
+     */
+    public DeadLetterFile(Path path, long maxRejected, double maxRejectRate) throws IOException {
+        if (maxRejected < 0 || !(maxRejectRate >= 0 && maxRejectRate <= 1)) {
+            throw new IllegalArgumentException("Reject limits must be a count >= 0 and a rate between 0 and 1");
+        }
+        this.path = path;
+        this.maxRejected = maxRejected;
+        this.maxRejectRate = maxRejectRate;
+        this.writer = CsvByteWriter.open(path);
+        writer.writeRaw("LineNumber,Reason,Record");
+        writer.endRow();
+    }
+
+    /**
+     * Describes a parse failure for the Reason column.
+     *
+     * @param tokenizer      positioned on the row that failed
+     * @param expectedFields number of fields a row must have
+     * @param e              the exception raised while parsing the row
+     * @return the missing field count, or else the exception type and message
+     */
+    public static String reasonFor(CsvTokenizer tokenizer, int expectedFields, RuntimeException e) {
+        if (tokenizer.fieldCount() < expectedFields) {
+            return "Expected " + expectedFields + " fields, found " + tokenizer.fieldCount();
+        }
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    /**
+     * Records one bad row and checks the limits.
+     *
+     * @param lineNumber 1-based line on which the row starts
+     * @param reason     why the row was rejected
+     * @param record     the raw row text
+     * @param rowsSeen   data rows read so far, including this one
+     * @throws IllegalStateException if a reject limit is exceeded
+     */
+    public synchronized void reject(long lineNumber, String reason, String record, long rowsSeen)
+            throws IOException {
+        rejected++;
+        writer.writeLong(lineNumber);
+        writer.comma();
+        writer.writeText(reason);
+        writer.comma();
+        writer.writeText(record);
+        writer.endRow();
+
+        if (rejected > maxRejected) {
+            throw new IllegalStateException("Aborting: more than " + maxRejected
+                + " rows rejected, see " + path);
+        }
+        if (rowsSeen >= RATE_SAMPLE_ROWS && rejected > maxRejectRate * rowsSeen) {
+            throw new IllegalStateException(String.format("Aborting: %d of %d rows rejected (limit %.2f%%), see %s",
+                rejected, rowsSeen, maxRejectRate * 100, path));
+        }
+    }
+
+    /**
+     * @return the number of rows rejected so far
+     */
+    public synchronized long rejected() {
+        return rejected;
+    }
+
+    /**
+     * @return the dead-letter file
+     */
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
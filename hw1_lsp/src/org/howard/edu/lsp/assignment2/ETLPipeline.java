@@ -1,15 +1,25 @@
 package org.howard.edu.lsp.assignment2;
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.howard.edu.lsp.assignment3.RuleEngine;
 
 /**
  * Represents a single product record, including the transformed fields.
@@ -65,12 +75,29 @@ record Product(
     public String toCsvString() {
         return String.join(",",
             String.valueOf(productId),
-            name,
+            CsvTokenizer.quoteIfNeeded(name),
             price.toPlainString(),
-            category,
+            CsvTokenizer.quoteIfNeeded(category),
             priceRange
         );
     }
+
+    /**
+     * Writes the record as one CSV row straight into the writer's byte buffer.
+     * @param out destination writer.
+     */
+    public void writeCsv(CsvByteWriter out) throws IOException {
+        out.writeInt(productId);
+        out.comma();
+        out.writeText(name);
+        out.comma();
+        out.writeDecimal(price);
+        out.comma();
+        out.writeText(category);
+        out.comma();
+        out.writeRaw(priceRange);
+        out.endRow();
+    }
 }
 
 
@@ -81,14 +108,106 @@ public class ETLPipeline {
     private static final String OUTPUT_DIR = "data";
     private static final String INPUT_FILENAME = "products.csv";
     private static final String OUTPUT_FILENAME = "transformed_products.csv";
+    private static final String DEAD_LETTER_FILENAME = "rejected_products.csv";
+    private static final String METRICS_FILENAME = "etl_metrics.properties";
+    private static final String AGGREGATES_FILENAME = "aggregates.csv";
+
+    // Parallel extract: ranges are at least this big so tiny files stay on one worker,
+    // and at most this big so each one fits in a single mapping.
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    private static final long MAX_CHUNK_BYTES = 1L << 28;
+
+    private static final BigDecimal ELECTRONICS_DISCOUNT = new BigDecimal("0.90");
+    private static final BigDecimal LOW_LIMIT = new BigDecimal("10.00");
+    private static final BigDecimal MEDIUM_LIMIT = new BigDecimal("100.00");
+    private static final BigDecimal HIGH_LIMIT = new BigDecimal("500.00");
 
+    /**
+     * Runs the pipeline.
+     * @param args optional {@code --parallel} or {@code --parallel=N} to extract with
+     *             N workers over a memory-mapped input (defaults to one per core);
+     *             {@code --lenient} or {@code --lenient=FILE} to skip rows that fail
+     *             to parse and record them in a dead-letter file (default
+     *             {@code data/rejected_products.csv}) instead of exiting;
+     *             {@code --max-rejects=N} and {@code --max-reject-rate=R} to still
+     *             fail a lenient run once more than N rows, or more than the
+     *             fraction R of all rows, were rejected;
+     *             {@code --metrics} or {@code --metrics=FILE} to publish per-stage
+     *             timings over JMX and write them to a summary file (default
+     *             {@code data/etl_metrics.properties});
+     *             {@code --dedupe} to write one row per ProductID, with the values of
+     *             its last row at the position of its first;
+     *             {@code --aggregates} or {@code --aggregates=FILE} to also write the
+     *             count, sum, min and max price per category and price range (default
+     *             {@code data/aggregates.csv});
+     *             {@code --rules=FILE} to load the transformation rules from FILE
+     *             (see {@link RuleEngine}) instead of using the built-in ones.
+     */
     public static void main(String[] args) {
         // Define relative paths for input and output files
         String inputFile = INPUT_DIR + File.separator + INPUT_FILENAME;
         String outputFile = OUTPUT_DIR + File.separator + OUTPUT_FILENAME;
 
+        int workers = 0;
+        String deadLetterFile = null;
+        long maxRejects = Long.MAX_VALUE;
+        double maxRejectRate = 1.0;
+        String metricsFile = null;
+        boolean dedupe = false;
+        String aggregatesFile = null;
+        String rulesFile = null;
+        for (String arg : args) {
+            if (arg.equals("--parallel")) {
+                workers = Runtime.getRuntime().availableProcessors();
+            } else if (arg.startsWith("--parallel=")) {
+                workers = Integer.parseInt(arg.substring("--parallel=".length()));
+            } else if (arg.equals("--lenient")) {
+                deadLetterFile = OUTPUT_DIR + File.separator + DEAD_LETTER_FILENAME;
+            } else if (arg.startsWith("--lenient=")) {
+                deadLetterFile = arg.substring("--lenient=".length());
+            } else if (arg.startsWith("--max-rejects=")) {
+                maxRejects = Long.parseLong(arg.substring("--max-rejects=".length()));
+            } else if (arg.startsWith("--max-reject-rate=")) {
+                maxRejectRate = Double.parseDouble(arg.substring("--max-reject-rate=".length()));
+            } else if (arg.equals("--metrics")) {
+                metricsFile = OUTPUT_DIR + File.separator + METRICS_FILENAME;
+            } else if (arg.startsWith("--metrics=")) {
+                metricsFile = arg.substring("--metrics=".length());
+            } else if (arg.equals("--dedupe")) {
+                dedupe = true;
+            } else if (arg.equals("--aggregates")) {
+                aggregatesFile = OUTPUT_DIR + File.separator + AGGREGATES_FILENAME;
+            } else if (arg.startsWith("--aggregates=")) {
+                aggregatesFile = arg.substring("--aggregates=".length());
+            } else if (arg.startsWith("--rules=")) {
+                rulesFile = arg.substring("--rules=".length());
+            } else {
+                System.err.println("Error: Unknown option " + arg);
+                System.exit(1);
+            }
+        }
+
+        Function<Product, Product> transform = ETLPipeline::transformProduct;
+        if (rulesFile != null) {
+            try {
+                RuleEngine rules = RuleEngine.load(rulesFile);
+                transform = p -> rules.apply(p.productId(), p.name(), p.price(), p.category(), Product::new);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Error reading rules file: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+
         long rowsRead = 0;
         long rowsTransformed = 0;
+        long rowsRejected = 0;
+        long rowsWritten = 0;
+
+        // Counters are cheap enough to keep always; they are only published with --metrics.
+        EtlMetrics metrics = new EtlMetrics();
+        if (metricsFile != null) {
+            metrics.register("ETLPipeline");
+        }
 
         // --- Step 1: Extract ---
         List<Product> products = new ArrayList<>();
@@ -100,46 +219,90 @@ public class ETLPipeline {
             System.exit(1);
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(inputFile))) {
-            header = reader.readLine();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                rowsRead++;
-                String[] fields = line.split(",");
-                Product p = new Product(
-                    Integer.parseInt(fields[0]),
-                    fields[1],
-                    new BigDecimal(fields[2]),
-                    fields[3],
-                    null // PriceRange initially null
-                );
-                products.add(p);
-            }
-        } catch (IOException | NumberFormatException e) {
+        DeadLetterFile deadLetters = null;
+        EtlMetrics.StageTimer extractTimer = metrics.start(EtlMetrics.Stage.EXTRACT);
+        try {
+            if (deadLetterFile != null) {
+                new File(OUTPUT_DIR).mkdirs();
+                deadLetters = new DeadLetterFile(Paths.get(deadLetterFile), maxRejects, maxRejectRate);
+            }
+            ParallelExtract extracted = workers > 0 ? extractParallel(inputFile, workers, deadLetters, metrics) : null;
+            if (workers > 0 && extracted == null) {
+                System.out.println("A quoted field spans a range boundary; reading " + inputFile + " sequentially.");
+            }
+            if (extracted != null) {
+                header = extracted.header();
+                products = extracted.products();
+                rowsRead = extracted.rows();
+            } else try (FileReader reader = new FileReader(inputFile, StandardCharsets.UTF_8)) {
+                CsvTokenizer tokenizer = new CsvTokenizer(reader);
+                ValueDictionary categories = new ValueDictionary();
+                header = tokenizer.next() ? tokenizer.record() : null;
+                while (tokenizer.next()) {
+                    rowsRead++;
+                    try {
+                        products.add(parseProduct(tokenizer, categories));
+                    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                        if (deadLetters == null) {
+                            throw e;
+                        }
+                        deadLetters.reject(tokenizer.lineNumber(), DeadLetterFile.reasonFor(tokenizer, 4, e),
+                            tokenizer.record(), rowsRead);
+                    }
+                }
+            }
+            if (deadLetters != null) {
+                rowsRejected = deadLetters.rejected();
+                deadLetters.close();
+            }
+            extractTimer.close();
+            metrics.addRows(EtlMetrics.Stage.EXTRACT, rowsRead);
+            metrics.addBytes(EtlMetrics.Stage.EXTRACT, file.length());
+            metrics.setRejectedRows(rowsRejected);
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
             System.err.println("Error reading or parsing input file: " + e.getMessage());
+            closeQuietly(deadLetters);
             System.exit(1);
             return; // For compiler, as exit terminates
         }
         
         // --- Step 2: Transform ---
+        EtlMetrics.StageTimer transformTimer = metrics.start(EtlMetrics.Stage.TRANSFORM);
         List<Product> transformedProducts = products.stream()
-            .map(ETLPipeline::transformProduct)
+            .map(transform)
             .collect(Collectors.toList());
+        transformTimer.close();
         rowsTransformed = transformedProducts.size();
+        metrics.addRows(EtlMetrics.Stage.TRANSFORM, rowsTransformed);
 
         // --- Step 3: Load ---
+        EtlMetrics.StageTimer loadTimer = metrics.start(EtlMetrics.Stage.LOAD);
         try {
             new File(OUTPUT_DIR).mkdirs(); 
-            
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile))) {
-                writer.write(header + ",PriceRange");
-                writer.newLine();
-                
-                for (Product p : transformedProducts) {
-                    writer.write(p.toCsvString());
-                    writer.newLine();
+
+            List<Product> outputProducts = dedupe
+                ? IntIndexMap.keepLast(transformedProducts, Product::productId)
+                : transformedProducts;
+            PriceAggregates aggregates = aggregatesFile == null ? null : new PriceAggregates();
+            try (CsvByteWriter writer = CsvByteWriter.open(Paths.get(outputFile))) {
+                writer.writeRaw(header + ",PriceRange");
+                writer.endRow();
+
+                for (Product p : outputProducts) {
+                    p.writeCsv(writer);
+                    if (aggregates != null) {
+                        aggregates.add(p.category(), p.priceRange(), p.price());
+                    }
                 }
+                writer.flush();
+                metrics.addBytes(EtlMetrics.Stage.LOAD, writer.bytesWritten());
             }
+            if (aggregates != null) {
+                aggregates.write(Paths.get(aggregatesFile));
+            }
+            rowsWritten = outputProducts.size();
+            loadTimer.close();
+            metrics.addRows(EtlMetrics.Stage.LOAD, rowsWritten);
         } catch (IOException e) {
             System.err.println("Error writing to output file: " + e.getMessage());
             System.exit(1);
@@ -149,7 +312,254 @@ public class ETLPipeline {
         System.out.println("---------------------------------");
         System.out.println("Rows read: " + rowsRead);
         System.out.println("Rows transformed: " + rowsTransformed);
+        if (deadLetterFile != null) {
+            System.out.println("Rows rejected: " + rowsRejected + " (see " + deadLetterFile + ")");
+        }
+        if (dedupe) {
+            System.out.println("Duplicate rows dropped: " + (rowsTransformed - rowsWritten));
+        }
         System.out.println("Output file written to: " + outputFile);
+        if (aggregatesFile != null) {
+            System.out.println("Aggregates written to: " + aggregatesFile);
+        }
+
+        if (metricsFile != null) {
+            metrics.print(System.out);
+            try {
+                metrics.writeSummary(Paths.get(metricsFile));
+                System.out.println("Metrics written to: " + metricsFile);
+            } catch (IOException e) {
+                System.err.println("Error writing metrics file: " + e.getMessage());
+                System.exit(1);
+            }
+            metrics.unregister();
+        }
+    }
+
+    private static void closeQuietly(DeadLetterFile deadLetters) {
+        if (deadLetters != null) {
+            try {
+                deadLetters.close();
+            } catch (IOException e) {
+                // already failing; the original error is the one to report
+            }
+        }
+    }
+
+    /**
+     * Header line, parsed rows and number of data rows read (including
+     * rejected ones) produced by {@link #extractParallel}.
+     */
+    record ParallelExtract(String header, List<Product> products, long rows) {
+    }
+
+    /**
+     * A row that failed to parse in a parallel range, with its line number
+     * counted from the start of the range.
+     */
+    private record Rejected(long line, String reason, String record) {
+    }
+
+    /**
+     * Products parsed from one range, the rows rejected in it, and how many
+     * lines the range held.
+     */
+    private record RangeResult(List<Product> products, List<Rejected> rejected, long lines) {
+    }
+
+    /**
+     * Extracts the input on several threads. The file is memory-mapped in
+     * line-aligned byte ranges, each range is parsed by its own worker, and
+     * the results are concatenated in range order so the row order matches a
+     * sequential read. Input is decoded as UTF-8. Ranges are split at raw
+     * line breaks, so a quoted field with a line break can straddle two ranges; the
+     * range then ends inside an open quote, and the whole file is left to the
+     * sequential reader, which also reports any quote that is really malformed.
+     * Rows rejected by the workers are written to the dead-letter file in input
+     * order once all ranges are parsed, with their line numbers in the whole file;
+     * if any range falls back to the sequential reader, none are written here.
+     * @param inputFile path of the CSV file.
+     * @param workers number of parser threads.
+     * @param deadLetters receives rows that fail to parse, or null to fail on them.
+     * @param metrics collects the CPU time and allocation of the workers.
+     * @return header line and all rows in input order, or null if a range could
+     *     not be tokenized and the file has to be read sequentially.
+     */
+    static ParallelExtract extractParallel(String inputFile, int workers, DeadLetterFile deadLetters,
+            EtlMetrics metrics) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(inputFile), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = nextLineStart(channel, 0, size);
+            String header = null;
+            if (size > 0) {
+                MappedByteBuffer headerBytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, dataStart);
+                header = decodeLine(headerBytes, 0, (int) dataStart, new byte[(int) dataStart]);
+            }
+
+            long chunk = Math.max(MIN_CHUNK_BYTES, (size - dataStart) / ((long) workers * 4));
+            chunk = Math.min(chunk, MAX_CHUNK_BYTES);
+
+            ExecutorService pool = Executors.newFixedThreadPool(workers);
+            try {
+                List<Future<RangeResult>> parts = new ArrayList<>();
+                long start = dataStart;
+                while (start < size) {
+                    long end = start + chunk < size ? nextLineStart(channel, start + chunk, size) : size;
+                    if (end - start > Integer.MAX_VALUE) {
+                        throw new IOException("Line starting at byte " + start + " is too long");
+                    }
+                    MappedByteBuffer range = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                    parts.add(pool.submit(() -> {
+                        EtlMetrics.StageTimer timer = metrics.startHelper(EtlMetrics.Stage.EXTRACT);
+                        try {
+                            return parseRange(range, deadLetters != null);
+                        } finally {
+                            timer.close();
+                        }
+                    }));
+                    start = end;
+                }
+
+                // Every range has to tokenize before any reject is written; otherwise
+                // the sequential fallback would reject the same rows a second time.
+                List<RangeResult> results = new ArrayList<>(parts.size());
+                for (Future<RangeResult> part : parts) {
+                    RangeResult result = part.get();
+                    if (result == null) {
+                        return null;
+                    }
+                    results.add(result);
+                }
+
+                List<Product> products = new ArrayList<>();
+                long rows = 0;
+                long linesBefore = dataStart > 0 ? 1 : 0; // the header line
+                for (RangeResult result : results) {
+                    products.addAll(result.products());
+                    rows += result.products().size();
+                    for (Rejected r : result.rejected()) {
+                        rows++;
+                        deadLetters.reject(linesBefore + r.line(), r.reason(), r.record(), rows);
+                    }
+                    linesBefore += result.lines();
+                }
+                return new ParallelExtract(header, products, rows);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while extracting " + inputFile, e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Finds the start of the line after the next line break at or after
+     * {@code from}. Like {@link CsvTokenizer}, a line ends at "\n", "\r\n" or
+     * a bare "\r", so CR-only files split into the same lines in parallel as
+     * when read sequentially.
+     * @return the start of the following line, or {@code size} if there is none.
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        long pos = from;
+        boolean afterCr = false;
+        while (pos < size) {
+            buf.clear();
+            int n = channel.read(buf, pos);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                byte b = buf.get(i);
+                if (afterCr) {
+                    // a '\r' ends the line; a '\n' right after it belongs to the same break
+                    return b == '\n' ? pos + i + 1 : pos + i;
+                }
+                if (b == '\n') {
+                    return pos + i + 1;
+                }
+                afterCr = b == '\r';
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    /**
+     * Parses every line of one mapped range into products.
+     * @param range bytes that start at a line start and end after a '\n' or at EOF.
+     * @param lenient true to collect rows that fail to parse instead of throwing.
+     * @return products in the order they appear in the range, the rejected rows
+     *     and the number of lines consumed, or null if the quoting is broken.
+     */
+    private static RangeResult parseRange(ByteBuffer range, boolean lenient) throws IOException {
+        CharBuffer chars = StandardCharsets.UTF_8.decode(range);
+        CsvTokenizer tokenizer = new CsvTokenizer(chars.array(),
+            chars.arrayOffset() + chars.position(), chars.remaining());
+        // one dictionary per range keeps workers independent; each still
+        // collapses its rows down to one String per category
+        ValueDictionary categories = new ValueDictionary();
+        List<Product> products = new ArrayList<>();
+        List<Rejected> rejected = new ArrayList<>();
+        while (true) {
+            try {
+                if (!tokenizer.next()) {
+                    break;
+                }
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            try {
+                products.add(parseProduct(tokenizer, categories));
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                if (!lenient) {
+                    throw e;
+                }
+                rejected.add(new Rejected(tokenizer.lineNumber(), DeadLetterFile.reasonFor(tokenizer, 4, e),
+                    tokenizer.record()));
+            }
+        }
+        return new RangeResult(products, rejected, tokenizer.linesRead());
+    }
+
+    /**
+     * Builds a product from the tokenizer's current record.
+     * ProductID and Price are parsed in place, without intermediate Strings,
+     * and Category is shared through the dictionary.
+     * @param tokenizer positioned on a data record.
+     * @param categories dictionary that interns category values.
+     * @return product with PriceRange unset.
+     */
+    private static Product parseProduct(CsvTokenizer tokenizer, ValueDictionary categories) {
+        return new Product(
+            tokenizer.parseInt(0),
+            tokenizer.field(1),
+            tokenizer.parseDecimal(2),
+            tokenizer.field(3, categories),
+            null // PriceRange initially null
+        );
+    }
+
+    /**
+     * Decodes the header bytes [start, end) as UTF-8, dropping a trailing
+     * "\n", "\r\n" or "\r".
+     */
+    private static String decodeLine(ByteBuffer buf, int start, int end, byte[] scratch) {
+        if (end > start && buf.get(end - 1) == '\n') {
+            end--;
+        }
+        if (end > start && buf.get(end - 1) == '\r') {
+            end--;
+        }
+        buf.get(start, scratch, 0, end - start);
+        return new String(scratch, 0, end - start, StandardCharsets.UTF_8);
     }
 
     /**
@@ -159,40 +569,40 @@ public class ETLPipeline {
      * @return fully transformed product record.
      */
     private static Product transformProduct(Product product) {
-        Product currentProduct = product;
+        // Every derived field is computed first and the output record is built
+        // once at the end, instead of copying the record for each step.
         String originalCategory = product.category();
 
         // Converts product name to uppercase
-        currentProduct = currentProduct.withName(currentProduct.name().toUpperCase());
+        String name = product.name().toUpperCase();
 
         // Applies discount for Electronics
+        BigDecimal price = product.price();
         if (originalCategory.equalsIgnoreCase("Electronics")) {
-            BigDecimal discountedPrice = currentProduct.price()
-                .multiply(new BigDecimal("0.90"))
+            price = price
+                .multiply(ELECTRONICS_DISCOUNT)
                 .setScale(2, RoundingMode.HALF_UP);
-            currentProduct = currentProduct.withPrice(discountedPrice);
         }
 
         // Recategorizes to "Premium Electronics" if conditions are met
+        String category = originalCategory;
         if (originalCategory.equalsIgnoreCase("Electronics") &&
-            currentProduct.price().compareTo(new BigDecimal("500.00")) > 0) {
-            currentProduct = currentProduct.withCategory("Premium Electronics");
+            price.compareTo(HIGH_LIMIT) > 0) {
+            category = "Premium Electronics";
         }
 
         // Adds new PriceRange field based on final price
         String priceRange;
-        BigDecimal finalPrice = currentProduct.price();
-        if (finalPrice.compareTo(new BigDecimal("10.00")) <= 0) {
+        if (price.compareTo(LOW_LIMIT) <= 0) {
             priceRange = "Low";
-        } else if (finalPrice.compareTo(new BigDecimal("100.00")) <= 0) {
+        } else if (price.compareTo(MEDIUM_LIMIT) <= 0) {
             priceRange = "Medium";
-        } else if (finalPrice.compareTo(new BigDecimal("500.00")) <= 0) {
+        } else if (price.compareTo(HIGH_LIMIT) <= 0) {
             priceRange = "High";
         } else {
             priceRange = "Premium";
         }
-        currentProduct = currentProduct.withPriceRange(priceRange);
-        
-        return currentProduct;
+
+        return new Product(product.productId(), name, price, category, priceRange);
     }
 }
\ No newline at end of file
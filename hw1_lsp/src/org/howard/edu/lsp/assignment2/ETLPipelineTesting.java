@@ -0,0 +1,129 @@
+package org.howard.edu.lsp.assignment2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * JUnit 5 test class for the parallel extract of ETLPipeline
+ */
+public class ETLPipelineTesting {
+
+    private static final String HEADER = "ProductID,Name,Price,Category\n";
+    private static final int MIB = 1 << 20;
+
+    private Path input;
+    private Path rejects;
+
+    /**
+     * Picks input and dead-letter files in a fresh temporary directory before each test
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        Path dir = Files.createTempDirectory("etl");
+        dir.toFile().deleteOnExit();
+        input = dir.resolve("products.csv");
+        input.toFile().deleteOnExit();
+        rejects = dir.resolve("rejected_products.csv");
+        rejects.toFile().deleteOnExit();
+    }
+
+    @Test
+    @DisplayName("Test extractParallel(): bad rows in every range should be rejected once, with file line numbers")
+    void testRejectsAcrossRanges() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        int line = 1;
+        line = appendRows(csv, line, 4);
+        int firstBad = ++line;
+        csv.append("5,Bad,abc,Toys\n");
+        line = appendRows(csv, line, (int) (1.5 * MIB) - csv.length());
+        int secondBad = ++line;
+        csv.append("9,Short,1.00\n");
+        appendRows(csv, line, (int) (2.5 * MIB) - csv.length());
+        Files.writeString(input, csv, StandardCharsets.UTF_8);
+
+        ETLPipeline.ParallelExtract extracted;
+        try (DeadLetterFile deadLetters = new DeadLetterFile(rejects, Long.MAX_VALUE, 1.0)) {
+            extracted = ETLPipeline.extractParallel(input.toString(), 2, deadLetters, new EtlMetrics());
+            assertNotNull(extracted, "Input without multi-line fields should be read in parallel");
+            assertEquals(2, deadLetters.rejected(), "Each bad row should be rejected once");
+        }
+        assertEquals(extracted.products().size() + 2, extracted.rows(), "Rows read should include the rejects");
+        List<String> lines = Files.readAllLines(rejects, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size(), "Dead-letter file should hold a header and two rows");
+        assertTrue(lines.get(1).startsWith(firstBad + ","), "First reject should carry its line number");
+        assertTrue(lines.get(2).startsWith(secondBad + ","), "Second reject should carry its line number");
+    }
+
+    @Test
+    @DisplayName("Test extractParallel(): falling back to sequential should not reject rows of earlier ranges")
+    void testNoRejectsBeforeFallback() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        int line = appendRows(csv, 1, 4);
+        csv.append("5,Bad,abc,Toys\n");
+        line = appendRows(csv, line + 1, 2 * MIB - 16 * 1024 - csv.length());
+        // A quoted name with a line break every few bytes, spanning the
+        // second range boundary (about 2 MiB in) on both sides.
+        csv.append(line + 1).append(",\"");
+        while (csv.length() < 2 * MIB + 16 * 1024) {
+            csv.append("long name\n");
+        }
+        csv.append("\",2.00,Toys\n");
+        appendRows(csv, line + 1, 3 * MIB - csv.length());
+        Files.writeString(input, csv, StandardCharsets.UTF_8);
+
+        try (DeadLetterFile deadLetters = new DeadLetterFile(rejects, Long.MAX_VALUE, 1.0)) {
+            assertNull(ETLPipeline.extractParallel(input.toString(), 2, deadLetters, new EtlMetrics()),
+                "A quoted field across a range boundary should leave the file to the sequential reader");
+            assertEquals(0, deadLetters.rejected(), "No row should be rejected before the sequential read");
+        }
+        assertEquals(1, Files.readAllLines(rejects, StandardCharsets.UTF_8).size(),
+            "Dead-letter file should hold only its header");
+    }
+
+    @Test
+    @DisplayName("Test extractParallel(): CR-only and CRLF line breaks should split like the sequential reader")
+    void testCarriageReturnLineBreaks() throws IOException {
+        for (String eol : new String[] {"\r", "\r\n"}) {
+            StringBuilder csv = new StringBuilder(HEADER.replace("\n", eol));
+            int rows = 0;
+            while (csv.length() < (int) (2.5 * MIB)) {
+                rows++;
+                csv.append(rows).append(",Item ").append(rows).append(",1.00,Toys").append(eol);
+            }
+            Files.writeString(input, csv, StandardCharsets.UTF_8);
+
+            ETLPipeline.ParallelExtract extracted =
+                ETLPipeline.extractParallel(input.toString(), 2, null, new EtlMetrics());
+            String name = eol.equals("\r") ? "CR-only" : "CRLF";
+            assertNotNull(extracted, name + " input should be read in parallel");
+            assertEquals(HEADER.trim(), extracted.header(), name + " header should not include its line break");
+            assertEquals(rows, extracted.rows(), name + " input should yield every row");
+            for (int i = 0; i < rows; i++) {
+                assertEquals(i + 1, extracted.products().get(i).productId(), name + " rows should stay in order");
+            }
+        }
+    }
+
+    /**
+     * Appends well-formed rows until at least {@code bytes} characters were
+     * added, numbering them after {@code line}.
+     * @return the line number of the last row appended
+     */
+    private static int appendRows(StringBuilder csv, int line, int bytes) {
+        int target = csv.length() + bytes;
+        while (csv.length() < target) {
+            line++;
+            csv.append(line).append(",Item ").append(line).append(",1.00,Toys\n");
+        }
+        return line;
+    }
+}
@@ -0,0 +1,315 @@
+package org.howard.edu.lsp.assignment2;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.ConstructorParameters;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Per-stage counters for one ETL run: wall time, CPU time, bytes allocated,
+ * rows and bytes handled by extract, transform and load, plus the number of
+ * rejected input rows.
+ *
+ * A stage is measured by wrapping it in {@link #start(Stage)}, which samples
+ * the current thread's clock, CPU time and allocation counter at start and
+ * at close. A stage may be timed more than once, and from different threads,
+ * and the samples add up. CPU time and allocation come from the JVM's
+ * per-thread counters and are reported as -1 where the JVM does not support
+ * them.
+ *
+ * The counters can be published as an MXBean with {@link #register(String)}
+ * and written as a properties file with {@link #writeSummary(Path)}.
+ */
+public final class EtlMetrics implements EtlMetricsMXBean {
+
+    /** The pipeline stages that are measured. */
+    public enum Stage {
+        EXTRACT, TRANSFORM, LOAD
+    }
+
+    private static final java.lang.management.ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean HOTSPOT_THREADS =
+        THREADS instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) THREADS : null;
+
+    private final Counters[] stages = new Counters[Stage.values().length];
+    private final AtomicLong rejectedRows = new AtomicLong();
+    private ObjectName registeredAs;
+
+    public EtlMetrics() {
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new Counters();
+        }
+    }
+
+    /**
+     * Starts timing a stage on the current thread.
+     *
+     * @param stage the stage being run
+     * @return a timer whose {@code close()} adds the elapsed time to the stage
+     */
+    public StageTimer start(Stage stage) {
+        return new StageTimer(stages[stage.ordinal()], true);
+    }
+
+    /**
+     * Starts timing work that a helper thread does for a stage which is
+     * already being timed by {@link #start(Stage)} on another thread. Only the
+     * helper's CPU time and allocation are added, so the stage's wall time is
+     * not counted twice.
+     *
+     * @param stage the stage the helper works for
+     * @return a timer whose {@code close()} adds the helper's usage to the stage
+     */
+    public StageTimer startHelper(Stage stage) {
+        return new StageTimer(stages[stage.ordinal()], false);
+    }
+
+    /**
+     * @param stage the stage that handled the rows
+     * @param rows  number of rows to add
+     */
+    public void addRows(Stage stage, long rows) {
+        stages[stage.ordinal()].rows.addAndGet(rows);
+    }
+
+    /**
+     * @param stage the stage that read or wrote the bytes
+     * @param bytes number of bytes to add
+     */
+    public void addBytes(Stage stage, long bytes) {
+        stages[stage.ordinal()].bytes.addAndGet(bytes);
+    }
+
+    /**
+     * @param rows input rows skipped because they could not be parsed
+     */
+    public void setRejectedRows(long rows) {
+        rejectedRows.set(rows);
+    }
+
+    /**
+     * @param stage the stage to read
+     * @return the stage's counters at this moment
+     */
+    public StageSnapshot snapshot(Stage stage) {
+        Counters c = stages[stage.ordinal()];
+        return new StageSnapshot(c.wallNanos.get(), c.cpuNanos.get(), c.allocatedBytes.get(),
+            c.rows.get(), c.bytes.get());
+    }
+
+    @Override
+    public StageSnapshot getExtract() {
+        return snapshot(Stage.EXTRACT);
+    }
+
+    @Override
+    public StageSnapshot getTransform() {
+        return snapshot(Stage.TRANSFORM);
+    }
+
+    @Override
+    public StageSnapshot getLoad() {
+        return snapshot(Stage.LOAD);
+    }
+
+    @Override
+    public long getRejectedRows() {
+        return rejectedRows.get();
+    }
+
+    /**
+     * Publishes the metrics on the platform MBean server as
+     * {@code org.howard.edu.lsp:type=EtlMetrics,name=<name>}.
+     *
+     * @param name identifies the pipeline, e.g. its class name
+     */
+    public void register(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            registeredAs = new ObjectName("org.howard.edu.lsp:type=EtlMetrics,name=" + ObjectName.quote(name));
+            if (server.isRegistered(registeredAs)) {
+                server.unregisterMBean(registeredAs);
+            }
+            server.registerMBean(this, registeredAs);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register ETL metrics: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Removes the MXBean added by {@link #register(String)}, if any.
+     */
+    public void unregister() {
+        if (registeredAs == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredAs);
+        } catch (JMException e) {
+            // already gone
+        }
+        registeredAs = null;
+    }
+
+    /**
+     * Writes every counter as {@code <stage>.<counter>=<value>} lines, in
+     * stage order, in a form {@link java.util.Properties#load} can read.
+     *
+     * @param path the summary file; replaced if it exists
+     */
+    public void writeSummary(Path path) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.ISO_8859_1)) {
+            for (Stage stage : Stage.values()) {
+                StageSnapshot s = snapshot(stage);
+                String prefix = stage.name().toLowerCase(Locale.ROOT) + ".";
+                line(out, prefix + "wallNanos", s.getWallNanos());
+                line(out, prefix + "cpuNanos", s.getCpuNanos());
+                line(out, prefix + "allocatedBytes", s.getAllocatedBytes());
+                line(out, prefix + "rows", s.getRows());
+                line(out, prefix + "bytes", s.getBytes());
+                line(out, prefix + "rowsPerSecond", Math.round(s.getRowsPerSecond()));
+                line(out, prefix + "bytesPerSecond", Math.round(s.getBytesPerSecond()));
+            }
+            line(out, "rejectedRows", getRejectedRows());
+        }
+    }
+
+    /**
+     * Prints one human-readable line per stage.
+     *
+     * @param out where to print
+     */
+    public void print(PrintStream out) {
+        for (Stage stage : Stage.values()) {
+            StageSnapshot s = snapshot(stage);
+            out.printf(Locale.ROOT, "  %-9s %9.1f ms wall %9.1f ms cpu %10.1f MB alloc %10d rows %11.0f rows/s %8.1f MB/s%n",
+                stage, s.getWallNanos() / 1e6, s.getCpuNanos() / 1e6, s.getAllocatedBytes() / 1e6,
+                s.getRows(), s.getRowsPerSecond(), s.getBytesPerSecond() / 1e6);
+        }
+        out.println("  rejected  " + getRejectedRows() + " rows");
+    }
+
+    private static void line(Writer out, String key, long value) throws IOException {
+        out.write(key + "=" + value + System.lineSeparator());
+    }
+
+    private static long cpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long allocatedBytes() {
+        if (HOTSPOT_THREADS == null || !HOTSPOT_THREADS.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return HOTSPOT_THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static final class Counters {
+        final AtomicLong wallNanos = new AtomicLong();
+        final AtomicLong cpuNanos = new AtomicLong();
+        final AtomicLong allocatedBytes = new AtomicLong();
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+    }
+
+    /**
+     * Measures one run of a stage on the thread that started it.
+     */
+    public static final class StageTimer implements AutoCloseable {
+        private final Counters counters;
+        private final boolean countWall;
+        private final long wallStart = System.nanoTime();
+        private final long cpuStart = cpuNanos();
+        private final long allocatedStart = allocatedBytes();
+
+        private StageTimer(Counters counters, boolean countWall) {
+            this.counters = counters;
+            this.countWall = countWall;
+        }
+
+        @Override
+        public void close() {
+            if (countWall) {
+                counters.wallNanos.addAndGet(System.nanoTime() - wallStart);
+            }
+            addIfSupported(counters.cpuNanos, cpuStart, cpuNanos());
+            addIfSupported(counters.allocatedBytes, allocatedStart, allocatedBytes());
+        }
+
+        private static void addIfSupported(AtomicLong total, long start, long end) {
+            if (start < 0 || end < 0) {
+                total.set(-1);
+            } else if (total.get() >= 0) {
+                total.addAndGet(end - start);
+            }
+        }
+    }
+
+    /**
+     * Counters of one stage at a point in time. Exposed over JMX as composite data.
+     */
+    public static final class StageSnapshot {
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long allocatedBytes;
+        private final long rows;
+        private final long bytes;
+
+        @ConstructorParameters({"wallNanos", "cpuNanos", "allocatedBytes", "rows", "bytes"})
+        public StageSnapshot(long wallNanos, long cpuNanos, long allocatedBytes, long rows, long bytes) {
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * @return CPU time of the threads that ran the stage, or -1 if unsupported
+         */
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        /**
+         * @return heap bytes allocated by the threads that ran the stage, or -1
+         *         if unsupported
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * @return input bytes read by extract or output bytes written by load;
+         *         0 for transform
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        public double getRowsPerSecond() {
+            return wallNanos == 0 ? 0 : rows / (wallNanos / 1e9);
+        }
+
+        public double getBytesPerSecond() {
+            return wallNanos == 0 ? 0 : bytes / (wallNanos / 1e9);
+        }
+    }
+}
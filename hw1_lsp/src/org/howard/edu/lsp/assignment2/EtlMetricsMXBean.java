@@ -0,0 +1,28 @@
+package org.howard.edu.lsp.assignment2;
+
+/**
+ * Management interface of {@link EtlMetrics}, readable from JConsole or any
+ * other JMX client while a run is in progress.
+ */
+public interface EtlMetricsMXBean {
+
+    /**
+     * @return counters of the extract stage
+     */
+    EtlMetrics.StageSnapshot getExtract();
+
+    /**
+     * @return counters of the transform stage
+     */
+    EtlMetrics.StageSnapshot getTransform();
+
+    /**
+     * @return counters of the load stage
+     */
+    EtlMetrics.StageSnapshot getLoad();
+
+    /**
+     * @return input rows skipped because they could not be parsed
+     */
+    long getRejectedRows();
+}
@@ -0,0 +1,124 @@
+package org.howard.edu.lsp.assignment2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Maps int keys to non-negative int values, typically positions in a list,
+ * without boxing either side. Keys are stored in an open-addressing table
+ * with linear probing that doubles when it is more than half full.
+ */
+public final class IntIndexMap {
+
+    private int[] keys;
+    // value + 1, so the zeroed array means every slot is empty
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * @param expected number of keys to size the table for
+     */
+    public IntIndexMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.min(Math.max(8, expected), 1 << 29) * 2 - 1) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @param key the key
+     * @return the value stored for the key, or -1 if there is none
+     */
+    public int get(int key) {
+        for (int slot = hash(key) & mask; values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores {@code value} for {@code key} unless the key already has one.
+     *
+     * @param key   the key
+     * @param value the value, at least 0
+     * @return the value already stored for the key, or -1 if it was added
+     */
+    public int putIfAbsent(int key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        int slot = hash(key) & mask;
+        for (; values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot] - 1;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value + 1;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Collapses rows that share a key into one. Each key keeps the position
+     * of its first row and the contents of its last one, so the result has
+     * the input order of first appearance with the latest values.
+     *
+     * @param rows rows in arrival order
+     * @param key  extracts the key of a row
+     * @return a new list holding one row per key
+     */
+    public static <T> List<T> keepLast(List<T> rows, ToIntFunction<? super T> key) {
+        IntIndexMap positions = new IntIndexMap(rows.size());
+        List<T> result = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            int existing = positions.putIfAbsent(key.applyAsInt(row), result.size());
+            if (existing < 0) {
+                result.add(row);
+            } else {
+                result.set(existing, row);
+            }
+        }
+        return result;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Spreads sequential IDs over the table so runs of keys do not form
+     * long probe chains.
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
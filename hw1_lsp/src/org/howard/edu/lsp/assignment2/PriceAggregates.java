@@ -0,0 +1,82 @@
+package org.howard.edu.lsp.assignment2;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Count, sum, minimum and maximum price per category and per price range,
+ * collected while the load stage writes its rows so no second scan of the
+ * output is needed.
+ *
+ * Written as CSV with the columns {@code Dimension,Key,Count,Sum,Min,Max},
+ * categories first and then price ranges, each in order of first appearance.
+ * Sums are exact.
+ */
+public final class PriceAggregates {
+
+    private final Map<String, Stats> categories = new LinkedHashMap<>();
+    private final Map<String, Stats> priceRanges = new LinkedHashMap<>();
+
+    /**
+     * Adds one output row.
+     *
+     * @param category   the row's category
+     * @param priceRange the row's price range
+     * @param price      the row's price
+     */
+    public void add(String category, String priceRange, BigDecimal price) {
+        categories.computeIfAbsent(category, k -> new Stats()).add(price);
+        priceRanges.computeIfAbsent(priceRange, k -> new Stats()).add(price);
+    }
+
+    /**
+     * @param path the aggregates file; replaced if it exists
+     */
+    public void write(Path path) throws IOException {
+        try (CsvByteWriter out = CsvByteWriter.open(path)) {
+            out.writeRaw("Dimension,Key,Count,Sum,Min,Max");
+            out.endRow();
+            write(out, "Category", categories);
+            write(out, "PriceRange", priceRanges);
+        }
+    }
+
+    private static void write(CsvByteWriter out, String dimension, Map<String, Stats> groups) throws IOException {
+        for (Map.Entry<String, Stats> group : groups.entrySet()) {
+            Stats stats = group.getValue();
+            out.writeRaw(dimension);
+            out.comma();
+            out.writeText(group.getKey());
+            out.comma();
+            out.writeLong(stats.count);
+            out.comma();
+            out.writeDecimal(stats.sum);
+            out.comma();
+            out.writeDecimal(stats.min);
+            out.comma();
+            out.writeDecimal(stats.max);
+            out.endRow();
+        }
+    }
+
+    private static final class Stats {
+        long count;
+        BigDecimal sum = BigDecimal.ZERO;
+        BigDecimal min;
+        BigDecimal max;
+
+        void add(BigDecimal price) {
+            count++;
+            sum = sum.add(price);
+            if (min == null || price.compareTo(min) < 0) {
+                min = price;
+            }
+            if (max == null || price.compareTo(max) > 0) {
+                max = price;
+            }
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package org.howard.edu.lsp.assignment2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes synthetic ProductID,Name,Price,Category files for scale and soak
+ * testing of ETLPipeline and OOETL.
+ *
+ * The output depends only on the options and the seed, so a fixture can be
+ * recreated anywhere instead of being copied around. Names and categories
+ * are drawn from pools that are UTF-8 encoded once, and numbers are
+ * formatted straight into a {@link CsvByteWriter} buffer, so a row costs a
+ * few random draws and array copies and builds no Strings.
+ *
+ * Rows are generated in fixed blocks of {@value #BLOCK_ROWS}, each with a
+ * random source seeded from the seed and the block number, on
+ * {@code --threads=N} workers (one per core by default) while the main
+ * thread writes finished blocks in order. The output is the same for any
+ * number of threads.
+ *
+ * <ul>
+ *   <li>Categories follow a Zipf distribution over {@code --categories=N}
+ *       names (Electronics first), with exponent {@code --skew=S}; 0 is uniform.</li>
+ *   <li>A share {@code --boundary-share=P} of prices lies within two cents of
+ *       a range limit (10.00, 100.00, 500.00, or 555.56, the Electronics price
+ *       that is 500.00 after the discount). The rest are log-uniform between
+ *       0.01 and 2000.00, so every price range gets rows.</li>
+ *   <li>A share {@code --long-names=P} of names is padded to about
+ *       {@code --name-length=N} characters, some with commas, quotes and
+ *       non-ASCII letters that need quoting and multi-byte encoding.</li>
+ *   <li>A share {@code --malformed=P} of rows is broken: a non-numeric price
+ *       or ID, or a missing field.</li>
+ *   <li>A share {@code --duplicates=P} of rows repeats an earlier ProductID.</li>
+ * </ul>
+ *
+ * ProductIDs count up from 1 and start over after {@link Integer#MAX_VALUE},
+ * since the pipelines read them as ints.
+ *
+ * Usage, from the hw1_lsp directory:
+ * <pre>
+ * java -cp out org.howard.edu.lsp.assignment2.ProductCsvGenerator
+ *     (--rows=N | --size=BYTES[K|M|G]) [--seed=N] [--threads=N] [options] OUTPUT|-
+ * </pre>
+ */
+public final class ProductCsvGenerator {
+
+    private static final String HEADER = "ProductID,Name,Price,Category";
+    private static final String[] NAMED_CATEGORIES = {
+        "Electronics", "Home", "Clothing", "Toys", "Books", "Garden", "Sports", "Grocery",
+        "Beauty", "Automotive", "Office", "Pets", "Music", "Tools", "Baby", "Jewelry"
+    };
+    private static final String[] WORDS = {
+        "Blue", "Compact", "Deluxe", "Wireless", "Steel", "Organic", "Classic", "Portable",
+        "Widget", "Lamp", "Speaker", "Kettle", "Jacket", "Puzzle", "Novel", "Hose",
+        "Crème", "Café", "Größe", "Señor"
+    };
+    private static final long[] BOUNDARY_CENTS = {1_000, 10_000, 50_000, 55_556};
+    private static final long MAX_CENTS = 200_000;
+    private static final int NAME_POOL_SIZE = 1024;
+    private static final int PRICE_TABLE_SIZE = 1 << 16;
+    private static final int BLOCK_ROWS = 1 << 15;
+    private static final byte[] ITEM = "Item ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] QUOTED_ITEM = "\"Item ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] QUOTE = "\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BAD_PRICE = ",N/A,".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BAD_ID = "ID".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Generator settings, filled from the command line.
+     */
+    static final class Options {
+        long rows = -1;
+        long bytes = -1;
+        long seed = 42;
+        int categories = NAMED_CATEGORIES.length;
+        double skew = 1.0;
+        double boundaryShare = 0.25;
+        double longNameShare = 0.01;
+        int nameLength = 200;
+        double malformedShare = 0;
+        double duplicateShare = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String output;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (arg.startsWith("--rows=")) {
+                    options.rows = Long.parseLong(arg.substring("--rows=".length()));
+                } else if (arg.startsWith("--size=")) {
+                    options.bytes = parseSize(arg.substring("--size=".length()));
+                } else if (arg.startsWith("--seed=")) {
+                    options.seed = Long.parseLong(arg.substring("--seed=".length()));
+                } else if (arg.startsWith("--categories=")) {
+                    options.categories = Integer.parseInt(arg.substring("--categories=".length()));
+                } else if (arg.startsWith("--skew=")) {
+                    options.skew = Double.parseDouble(arg.substring("--skew=".length()));
+                } else if (arg.startsWith("--boundary-share=")) {
+                    options.boundaryShare = share(arg, "--boundary-share=");
+                } else if (arg.startsWith("--long-names=")) {
+                    options.longNameShare = share(arg, "--long-names=");
+                } else if (arg.startsWith("--name-length=")) {
+                    options.nameLength = Integer.parseInt(arg.substring("--name-length=".length()));
+                } else if (arg.startsWith("--malformed=")) {
+                    options.malformedShare = share(arg, "--malformed=");
+                } else if (arg.startsWith("--duplicates=")) {
+                    options.duplicateShare = share(arg, "--duplicates=");
+                } else if (arg.startsWith("--threads=")) {
+                    options.threads = Integer.parseInt(arg.substring("--threads=".length()));
+                } else if (arg.startsWith("--") || options.output != null) {
+                    throw new IllegalArgumentException("Unknown option " + arg);
+                } else {
+                    options.output = arg;
+                }
+            }
+            if (options.output == null) {
+                throw new IllegalArgumentException("An output file, or - for standard output, is required");
+            }
+            if ((options.rows < 0) == (options.bytes < 0)) {
+                throw new IllegalArgumentException("Exactly one of --rows=N and --size=BYTES is required");
+            }
+            if (options.categories < 1 || options.skew < 0 || options.nameLength < 1 || options.threads < 1) {
+                throw new IllegalArgumentException("--categories, --name-length and --threads must be positive"
+                    + " and --skew must not be negative");
+            }
+            return options;
+        }
+
+        private static double share(String arg, String prefix) {
+            double value = Double.parseDouble(arg.substring(prefix.length()));
+            if (!(value >= 0 && value <= 1)) {
+                throw new IllegalArgumentException(prefix + " must be between 0 and 1");
+            }
+            return value;
+        }
+
+        private static long parseSize(String text) {
+            String upper = text.toUpperCase(Locale.ROOT);
+            long unit = 1;
+            if (upper.endsWith("K")) {
+                unit = 1L << 10;
+            } else if (upper.endsWith("M")) {
+                unit = 1L << 20;
+            } else if (upper.endsWith("G")) {
+                unit = 1L << 30;
+            }
+            String digits = unit == 1 ? upper : upper.substring(0, upper.length() - 1);
+            return Math.multiplyExact(Long.parseLong(digits), unit);
+        }
+    }
+
+    private final Options options;
+    private final byte[][] categories;
+    private final double[] categoryCdf;
+    // Short suffixes first, then long ones; each row picks the half itself.
+    private final byte[][] nameSuffixes = new byte[2 * NAME_POOL_SIZE][];
+    private final boolean[] suffixNeedsQuotes = new boolean[2 * NAME_POOL_SIZE];
+    private final long[] logUniformCents = new long[PRICE_TABLE_SIZE];
+
+    /**
+     * Builds the shared pools. They are read-only afterwards, so blocks can be
+     * generated on any thread.
+     */
+    ProductCsvGenerator(Options options) {
+        this.options = options;
+        SplittableRandom random = new SplittableRandom(options.seed);
+        this.categories = new byte[options.categories][];
+        this.categoryCdf = new double[options.categories];
+        double total = 0;
+        for (int i = 0; i < categories.length; i++) {
+            String name = i < NAMED_CATEGORIES.length ? NAMED_CATEGORIES[i] : "Category" + i;
+            categories[i] = name.getBytes(StandardCharsets.UTF_8);
+            total += 1 / Math.pow(i + 1, options.skew);
+            categoryCdf[i] = total;
+        }
+        for (int i = 0; i < categoryCdf.length; i++) {
+            categoryCdf[i] /= total;
+        }
+        for (int i = 0; i < nameSuffixes.length; i++) {
+            String suffix = nameSuffix(random, i >= NAME_POOL_SIZE);
+            suffixNeedsQuotes[i] = suffix.indexOf(',') >= 0 || suffix.indexOf('"') >= 0;
+            if (suffixNeedsQuotes[i]) {
+                suffix = suffix.replace("\"", "\"\"");
+            }
+            nameSuffixes[i] = suffix.getBytes(StandardCharsets.UTF_8);
+        }
+        // quantiles of a log-uniform 0.01..MAX_CENTS, so a price costs a lookup instead of exp()
+        for (int i = 0; i < PRICE_TABLE_SIZE; i++) {
+            double u = (i + random.nextDouble()) / PRICE_TABLE_SIZE;
+            logUniformCents[i] = Math.max(1, Math.round(Math.exp(u * Math.log(MAX_CENTS))));
+        }
+    }
+
+    public static void main(String[] args) {
+        try {
+            Options options = Options.parse(args);
+            long start = System.nanoTime();
+            CsvByteWriter out = options.output.equals("-")
+                ? new CsvByteWriter(new FileOutputStream(FileDescriptor.out).getChannel())
+                : CsvByteWriter.open(Paths.get(options.output));
+            long rows;
+            try (out) {
+                rows = new ProductCsvGenerator(options).write(out);
+            }
+            if (!options.output.equals("-")) {
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf(Locale.ROOT, "Wrote %d rows, %d bytes to %s in %.1f s (%.0f MB/s)%n",
+                    rows, out.bytesWritten(), options.output, seconds, out.bytesWritten() / seconds / 1e6);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Writes the header and then rows until the row or byte target is reached.
+     * With a byte target, writing stops at the end of the row that reaches it.
+     *
+     * @param out where to write; left open
+     * @return the number of data rows written
+     */
+    long write(CsvByteWriter out) throws IOException {
+        out.writeRaw(HEADER);
+        out.endRow();
+        long blockCount = options.rows >= 0 ? (options.rows + BLOCK_ROWS - 1) / BLOCK_ROWS : Long.MAX_VALUE;
+        // a couple of blocks per worker in flight keeps every worker busy with bounded memory
+        int window = options.threads * 2;
+        ExecutorService pool = Executors.newFixedThreadPool(options.threads);
+        try {
+            Deque<Future<byte[]>> pending = new ArrayDeque<>();
+            long nextBlock = 0;
+            long rows = 0;
+            while (true) {
+                while (pending.size() < window && nextBlock < blockCount) {
+                    long block = nextBlock++;
+                    long firstRow = block * BLOCK_ROWS + 1;
+                    int count = (int) Math.min(BLOCK_ROWS, blockCount == Long.MAX_VALUE
+                        ? BLOCK_ROWS : options.rows - firstRow + 1);
+                    pending.add(pool.submit(() -> generateBlock(block, firstRow, count)));
+                }
+                if (pending.isEmpty()) {
+                    return rows;
+                }
+                byte[] block = pending.poll().get();
+                long remaining = options.bytes - out.bytesWritten();
+                if (options.bytes >= 0 && block.length >= remaining) {
+                    int end = endOfRowAt(block, (int) Math.max(0, remaining - 1));
+                    out.writeRaw(Arrays.copyOf(block, end));
+                    return rows + countRows(block, end);
+                }
+                out.writeRaw(block);
+                rows += blockCount == Long.MAX_VALUE ? BLOCK_ROWS : countRows(block, block.length);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating " + options.output, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates {@code count} rows starting at 1-based row {@code firstRow}.
+     * The result depends only on the options and the block number.
+     */
+    private byte[] generateBlock(long block, long firstRow, int count) throws IOException {
+        SplittableRandom random = new SplittableRandom(options.seed ^ (block * 0x9E3779B97F4A7C15L));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(count * 64);
+        try (CsvByteWriter out = new CsvByteWriter(Channels.newChannel(bytes), 1 << 16)) {
+            for (long row = firstRow; row < firstRow + count; row++) {
+                int id = (int) ((row - 1) % Integer.MAX_VALUE) + 1;
+                if (options.duplicateShare > 0 && id > 1 && random.nextDouble() < options.duplicateShare) {
+                    id = 1 + random.nextInt(id - 1);
+                }
+                if (options.malformedShare > 0 && random.nextDouble() < options.malformedShare) {
+                    writeMalformed(out, id, random);
+                } else {
+                    writeRow(out, id, random);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the index just past the first '\n' at or after {@code from}
+     */
+    private static int endOfRowAt(byte[] block, int from) {
+        for (int i = from; i < block.length; i++) {
+            if (block[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return block.length;
+    }
+
+    private static long countRows(byte[] block, int end) {
+        long rows = 0;
+        for (int i = 0; i < end; i++) {
+            if (block[i] == '\n') {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private void writeRow(CsvByteWriter out, int id, SplittableRandom random) throws IOException {
+        out.writeInt(id);
+        out.comma();
+        writeName(out, id, random);
+        out.comma();
+        out.writeFixed(priceCents(random), 2);
+        out.comma();
+        out.writeRaw(category(random));
+        out.endRow();
+    }
+
+    private void writeMalformed(CsvByteWriter out, int id, SplittableRandom random) throws IOException {
+        switch (random.nextInt(3)) {
+            case 0:
+                out.writeInt(id);
+                out.comma();
+                writeName(out, id, random);
+                out.writeRaw(BAD_PRICE);
+                out.writeRaw(category(random));
+                break;
+            case 1:
+                out.writeRaw(BAD_ID);
+                out.writeInt(id);
+                out.comma();
+                writeName(out, id, random);
+                out.comma();
+                out.writeFixed(priceCents(random), 2);
+                out.comma();
+                out.writeRaw(category(random));
+                break;
+            default:
+                out.writeInt(id);
+                out.comma();
+                writeName(out, id, random);
+                out.comma();
+                out.writeFixed(priceCents(random), 2);
+                break;
+        }
+        out.endRow();
+    }
+
+    /**
+     * Writes "Item &lt;id&gt;" followed by a suffix from the pool, quoting it
+     * when the suffix contains a comma or quote. Whether the name is long is
+     * drawn for every row, so the share holds whatever the pool size.
+     */
+    private void writeName(CsvByteWriter out, int id, SplittableRandom random) throws IOException {
+        int pick = random.nextInt(NAME_POOL_SIZE);
+        if (random.nextDouble() < options.longNameShare) {
+            pick += NAME_POOL_SIZE;
+        }
+        if (suffixNeedsQuotes[pick]) {
+            out.writeRaw(QUOTED_ITEM);
+            out.writeInt(id);
+            out.writeRaw(nameSuffixes[pick]);
+            out.writeRaw(QUOTE);
+        } else {
+            out.writeRaw(ITEM);
+            out.writeInt(id);
+            out.writeRaw(nameSuffixes[pick]);
+        }
+    }
+
+    private String nameSuffix(SplittableRandom random, boolean longName) {
+        StringBuilder sb = new StringBuilder();
+        int length = longName ? options.nameLength - 12 : 1 + random.nextInt(20);
+        while (sb.length() < length) {
+            sb.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+            if (longName) {
+                int punctuation = random.nextInt(8);
+                if (punctuation == 0) {
+                    sb.append(',');
+                } else if (punctuation == 1) {
+                    sb.append(" \"").append(WORDS[random.nextInt(WORDS.length)]).append('"');
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private long priceCents(SplittableRandom random) {
+        if (random.nextDouble() < options.boundaryShare) {
+            return BOUNDARY_CENTS[random.nextInt(BOUNDARY_CENTS.length)] + random.nextInt(5) - 2;
+        }
+        return logUniformCents[random.nextInt(PRICE_TABLE_SIZE)];
+    }
+
+    private byte[] category(SplittableRandom random) {
+        double u = random.nextDouble();
+        int low = 0;
+        int high = categoryCdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (categoryCdf[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return categories[low];
+    }
+}
@@ -0,0 +1,176 @@
+package org.howard.edu.lsp.assignment2;
+
+import java.util.Arrays;
+
+/**
+ * Maps repeated field values such as categories and price ranges to one
+ * shared String instance and a small integer code.
+ *
+ * Lookups can be made straight from a char buffer, so a value that is already
+ * in the dictionary costs no allocation at all; every row that names the same
+ * category then points at the same String. Codes are assigned in order of first
+ * appearance starting at 0 and can be turned back into the value with
+ * {@link #decode(int)}.
+ *
+ * The dictionary stops growing at its capacity; values seen after that are
+ * returned as fresh Strings with code -1, so a column that turns out to be
+ * high-cardinality cannot exhaust the heap. Not thread-safe.
+ */
+public final class ValueDictionary {
+
+    /** Default maximum number of distinct values kept. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final int capacity;
+    private String[] values = new String[16];
+    private int[] table = new int[32]; // code + 1, 0 means empty
+    private int size;
+
+    /**
+     * Creates a dictionary holding up to {@link #DEFAULT_CAPACITY} values.
+     */
+    public ValueDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity maximum number of distinct values to keep
+     */
+    public ValueDictionary(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the shared instance equal to the given characters, adding it if
+     * this is the first time the value is seen.
+     *
+     * @param chars  buffer holding the value
+     * @param offset index of the first character
+     * @param length number of characters
+     * @return the canonical String for the value
+     */
+    public String intern(char[] chars, int offset, int length) {
+        int code = code(chars, offset, length);
+        return code >= 0 ? values[code] : new String(chars, offset, length);
+    }
+
+    /**
+     * Returns the shared instance equal to the given value.
+     *
+     * @param value the value to look up
+     * @return the canonical String, or {@code value} itself if it is new
+     */
+    public String intern(String value) {
+        int code = code(value);
+        return code >= 0 ? values[code] : value;
+    }
+
+    /**
+     * Returns the code for the given characters, adding the value if needed.
+     *
+     * @param chars  buffer holding the value
+     * @param offset index of the first character
+     * @param length number of characters
+     * @return the code, or -1 if the value is new and the dictionary is full
+     */
+    public int code(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int mask = table.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return add(new String(chars, offset, length), slot);
+            }
+            if (matches(values[entry - 1], chars, offset, length)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the code for the given value, adding it if needed.
+     *
+     * @param value the value to look up
+     * @return the code, or -1 if the value is new and the dictionary is full
+     */
+    public int code(String value) {
+        int mask = table.length - 1;
+        for (int slot = mix(value.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return add(value, slot);
+            }
+            if (values[entry - 1].equals(value)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the value for a code.
+     *
+     * @param code a code returned by this dictionary
+     * @return the canonical String
+     * @throws IndexOutOfBoundsException if the code was never assigned
+     */
+    public String decode(int code) {
+        if (code < 0 || code >= size) {
+            throw new IndexOutOfBoundsException("Unknown dictionary code " + code);
+        }
+        return values[code];
+    }
+
+    /**
+     * @return the number of distinct values stored
+     */
+    public int size() {
+        return size;
+    }
+
+    private int add(String value, int slot) {
+        if (size == capacity) {
+            return -1;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        table[slot] = ++size;
+        if (size * 2 > table.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    private void rehash() {
+        int[] bigger = new int[table.length * 2];
+        int mask = bigger.length - 1;
+        for (int code = 0; code < size; code++) {
+            int slot = mix(values[code].hashCode()) & mask;
+            while (bigger[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            bigger[slot] = code + 1;
+        }
+        table = bigger;
+    }
+
+    private static boolean matches(String value, char[] chars, int offset, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
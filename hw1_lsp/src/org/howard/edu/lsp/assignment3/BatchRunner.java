@@ -0,0 +1,277 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.howard.edu.lsp.assignment2.CsvByteWriter;
+
+/**
+ * Runs the extract, transform and load stages over many shard files in one JVM.
+ *
+ * Every shard is one task on a work-stealing {@link ForkJoinPool}, so idle
+ * workers pick up the remaining shards as soon as they finish their own, and a
+ * few large files do not hold the whole batch back. Each shard is streamed row
+ * by row, so memory use does not depend on shard size.
+ *
+ * Output is either one file per shard (named {@code transformed_<shard>}) in an
+ * output directory, or a single merged file holding the rows of all shards in
+ * file-name order under one header.
+ */
+class BatchRunner {
+
+    private final ForkJoinPool pool;
+    private final OOETL.ProductTransformer transformer;
+
+    /**
+     * @param threads     number of worker threads
+     * @param transformer transformer shared by all shards; it must be stateless
+     */
+    BatchRunner(int threads, OOETL.ProductTransformer transformer) {
+        this.pool = new ForkJoinPool(threads);
+        this.transformer = transformer;
+    }
+
+    /**
+     * Resolves the shard list for a directory or a glob such as
+     * {@code data/shards/*.csv}. A directory selects every {@code *.csv} in it.
+     *
+     * Files this tool writes are never taken as shards, so a batch whose
+     * source is also its output directory does not read back its own
+     * {@code transformed_*} files, the merged file, or the dead-letter and
+     * aggregates files left by other runs.
+     *
+     * @param source    directory or glob
+     * @param outputDir directory that receives per-shard output
+     * @param mergeFile merged output file, or null
+     * @return matching regular files, sorted by name
+     */
+    static List<Path> resolveShards(String source, Path outputDir, Path mergeFile) throws IOException {
+        Path path = Paths.get(source);
+        Path dir;
+        String glob;
+        if (Files.isDirectory(path)) {
+            dir = path;
+            glob = "*.csv";
+        } else {
+            dir = path.getParent() == null ? Paths.get(".") : path.getParent();
+            glob = path.getFileName().toString();
+        }
+        if (!Files.isDirectory(dir)) {
+            throw new IOException("Input directory not found: " + dir);
+        }
+        List<Path> shards = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+            for (Path shard : stream) {
+                if (Files.isRegularFile(shard) && !isOutput(shard, outputDir, mergeFile)) {
+                    shards.add(shard);
+                }
+            }
+        }
+        shards.sort(null);
+        if (shards.isEmpty()) {
+            throw new IOException("No input files match " + source);
+        }
+        return shards;
+    }
+
+    private static boolean isOutput(Path file, Path outputDir, Path mergeFile) throws IOException {
+        if (mergeFile != null && Files.exists(mergeFile) && Files.isSameFile(file, mergeFile)) {
+            return true;
+        }
+        String name = file.getFileName().toString();
+        if (name.equals(Paths.get(OOETL.DEAD_LETTER_FILE).getFileName().toString())
+                || name.equals(Paths.get(OOETL.AGGREGATES_FILE).getFileName().toString())) {
+            return true;
+        }
+        Path dir = file.toAbsolutePath().getParent();
+        return name.startsWith("transformed_") && Files.isDirectory(outputDir) && Files.isSameFile(dir, outputDir);
+    }
+
+    /**
+     * Transforms every shard into its own output file.
+     *
+     * @param shards    input files
+     * @param outputDir directory that receives {@code transformed_<shard>} files
+     * @return per-shard results in input order
+     */
+    List<ShardResult> runPerShard(List<Path> shards, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        List<Path> outputs = new ArrayList<>();
+        for (Path shard : shards) {
+            outputs.add(outputDir.resolve("transformed_" + shard.getFileName()));
+        }
+        return runAll(shards, outputs, true);
+    }
+
+    /**
+     * Transforms every shard and concatenates the results into one file with
+     * a single header. Shards are processed in parallel into temporary files
+     * and appended in file-name order, so the output does not depend on which
+     * worker finished first. All shards must share the same header.
+     *
+     * The merged file replaces the output only once it is complete, and is
+     * gzipped if the output name ends in {@code .gz}.
+     *
+     * @param shards input files
+     * @param output merged output file
+     * @return per-shard results in input order
+     */
+    List<ShardResult> runMerged(List<Path> shards, Path output) throws IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        List<Path> parts = new ArrayList<>();
+        try {
+            for (int i = 0; i < shards.size(); i++) {
+                parts.add(Files.createTempFile(parent, output.getFileName() + ".part" + i + "-", ".tmp"));
+            }
+            List<ShardResult> results = runAll(shards, parts, false);
+
+            String header = results.get(0).header;
+            for (ShardResult result : results) {
+                if (!header.equals(result.header)) {
+                    throw new IOException("Header of " + result.shard + " differs from " + shards.get(0));
+                }
+            }
+
+            // Assembled under a temporary name so a failed merge keeps the
+            // previous output; the final name still selects gzip.
+            Path temp = output.resolveSibling(output.getFileName() + ".tmp");
+            try {
+                try (CsvByteWriter writer = CompressedFiles.openWriter(temp, CompressedFiles.isCompressed(output))) {
+                    writer.writeRaw(header + ",PriceRange");
+                    writer.endRow();
+                    byte[] block = new byte[1 << 16];
+                    for (Path part : parts) {
+                        try (InputStream in = Files.newInputStream(part)) {
+                            int n;
+                            while ((n = in.readNBytes(block, 0, block.length)) > 0) {
+                                writer.writeRaw(n == block.length ? block : Arrays.copyOf(block, n));
+                            }
+                        }
+                    }
+                }
+                Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return results;
+        } finally {
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private List<ShardResult> runAll(List<Path> shards, List<Path> outputs, boolean writeHeader)
+            throws IOException {
+        List<Future<ShardResult>> futures = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            Path shard = shards.get(i);
+            Path output = outputs.get(i);
+            futures.add(pool.submit(() -> runShard(shard, output, writeHeader)));
+        }
+        List<ShardResult> results = new ArrayList<>();
+        try {
+            for (Future<ShardResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for shards", e);
+        } catch (ExecutionException e) {
+            for (Future<ShardResult> future : futures) {
+                future.cancel(true);
+            }
+            // ForkJoinPool wraps the IOException thrown by a shard in one or
+            // more RuntimeExceptions; report the original
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+        return results;
+    }
+
+    private ShardResult runShard(Path shard, Path output, boolean writeHeader) throws IOException {
+        long start = System.nanoTime();
+        OOETL.CSVExtractor extractor = new OOETL.CSVExtractor(shard.toString());
+        OOETL.CSVLoader loader = new OOETL.CSVLoader(output.toString(), writeHeader);
+        long rows;
+        try (OOETL.CSVLoader.RowWriter writer = loader.open(extractor::getHeader)) {
+            rows = extractor.extract(product -> writer.write(transformer.applyTransformations(product)));
+            writer.commit();
+        } catch (UncheckedIOException e) {
+            throw new IOException(shard + ": " + e.getCause().getMessage(), e.getCause());
+        } catch (RuntimeException e) {
+            throw new IOException(shard + ": " + e.getMessage(), e);
+        }
+        return new ShardResult(shard, extractor.getHeader(), rows, Files.size(shard), System.nanoTime() - start);
+    }
+
+    /**
+     * Prints rows and throughput for every shard followed by the batch totals.
+     *
+     * @param results   per-shard results
+     * @param wallNanos elapsed time of the whole batch
+     */
+    static void report(List<ShardResult> results, long wallNanos) {
+        long rows = 0;
+        long bytes = 0;
+        for (ShardResult r : results) {
+            System.out.printf("  %-40s %10d rows %9.1f ms %12.0f rows/s %8.1f MB/s%n",
+                r.shard.getFileName(), r.rows, r.nanos / 1e6, r.rowsPerSecond(), r.megabytesPerSecond());
+            rows += r.rows;
+            bytes += r.bytes;
+        }
+        double seconds = wallNanos / 1e9;
+        System.out.printf("BATCH: %d files, %d rows in %.1f ms (%.0f rows/s, %.1f MB/s)%n",
+            results.size(), rows, wallNanos / 1e6, rows / seconds, bytes / 1e6 / seconds);
+    }
+
+    /**
+     * Outcome of one shard.
+     */
+    static class ShardResult {
+        final Path shard;
+        final String header;
+        final long rows;
+        final long bytes;
+        final long nanos;
+
+        ShardResult(Path shard, String header, long rows, long bytes, long nanos) {
+            this.shard = shard;
+            this.header = header;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        double rowsPerSecond() {
+            return rows / (nanos / 1e9);
+        }
+
+        double megabytesPerSecond() {
+            return bytes / 1e6 / (nanos / 1e9);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * Records how much of an input file has already been loaded, so the next
+ * incremental run can skip straight to the rows appended since.
+ *
+ * A checkpoint is only trusted if the input still starts with the bytes it
+ * had when the checkpoint was taken and the output is exactly as that run left
+ * it. The input is compared by size and by CRC-32 of its first
+ * {@value #WINDOW} bytes and of the {@value #WINDOW} bytes just before the
+ * checkpointed offset, which catches truncation, rewrites and in-place edits
+ * near either end without reading the whole file again. The transform
+ * settings must also be the ones the loaded rows were produced with, or the
+ * output would mix rows from two rule sets.
+ *
+ * Stored as a properties file next to the output.
+ */
+final class Checkpoint {
+
+    /** Bytes hashed at the start of the input and before the offset. */
+    static final int WINDOW = 64 * 1024;
+
+    final long offset;
+    final long rows;
+    final long headCrc;
+    final long tailCrc;
+    final boolean endsWithNewline;
+    final long outputSize;
+    final String transform;
+
+    Checkpoint(long offset, long rows, long headCrc, long tailCrc, boolean endsWithNewline, long outputSize,
+            String transform) {
+        this.offset = offset;
+        this.rows = rows;
+        this.headCrc = headCrc;
+        this.tailCrc = tailCrc;
+        this.endsWithNewline = endsWithNewline;
+        this.outputSize = outputSize;
+        this.transform = transform;
+    }
+
+    /**
+     * @param output the output file the checkpoint belongs to
+     * @return the checkpoint file kept next to it
+     */
+    static Path pathFor(Path output) {
+        return output.resolveSibling(output.getFileName() + ".checkpoint");
+    }
+
+    /**
+     * Fingerprints the first {@code offset} bytes of the input after they
+     * have been loaded.
+     *
+     * @param input      the input file
+     * @param offset     number of input bytes that were loaded
+     * @param rows       total rows loaded from those bytes
+     * @param outputSize size of the output file after loading them
+     * @param transform  the transform settings the rows were produced with
+     */
+    static Checkpoint capture(Path input, long offset, long rows, long outputSize, String transform)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            boolean endsWithNewline = true;
+            if (offset > 0) {
+                byte last = read(channel, offset - 1, 1)[0];
+                endsWithNewline = last == '\n' || last == '\r';
+            }
+            return new Checkpoint(offset, rows, headCrc(channel, offset), tailCrc(channel, offset),
+                endsWithNewline, outputSize, transform);
+        }
+    }
+
+    /**
+     * Reads a checkpoint file.
+     *
+     * @return the checkpoint, or null if there is none or it cannot be parsed
+     */
+    static Checkpoint read(Path path) throws IOException {
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+            props.load(reader);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            return new Checkpoint(
+                Long.parseLong(props.getProperty("offset")),
+                Long.parseLong(props.getProperty("rows")),
+                Long.parseLong(props.getProperty("headCrc")),
+                Long.parseLong(props.getProperty("tailCrc")),
+                Boolean.parseBoolean(props.getProperty("endsWithNewline")),
+                Long.parseLong(props.getProperty("outputSize")),
+                props.getProperty("transform"));
+        } catch (NumberFormatException e) {
+            // a missing or damaged entry just means a full rebuild
+            return null;
+        }
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file and moves it into place, so
+     * a crash leaves either the old or the new checkpoint, never half of one.
+     */
+    void write(Path path) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("offset", Long.toString(offset));
+        props.setProperty("rows", Long.toString(rows));
+        props.setProperty("headCrc", Long.toString(headCrc));
+        props.setProperty("tailCrc", Long.toString(tailCrc));
+        props.setProperty("endsWithNewline", Boolean.toString(endsWithNewline));
+        props.setProperty("outputSize", Long.toString(outputSize));
+        props.setProperty("transform", transform);
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.ISO_8859_1)) {
+            props.store(writer, "ETL checkpoint");
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Checks whether the rows after {@link #offset} can simply be appended.
+     *
+     * @param input     the input file as it is now
+     * @param output    the output file as it is now
+     * @param transform the transform settings of this run
+     * @return null if the checkpoint still holds, otherwise why a full
+     *         rebuild is needed
+     */
+    String staleReason(Path input, Path output, String transform) throws IOException {
+        if (!transform.equals(this.transform)) {
+            return "transform settings changed since the last run";
+        }
+        if (!Files.exists(output) || Files.size(output) != outputSize) {
+            return "output was modified since the last run";
+        }
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < offset) {
+                return "input was truncated";
+            }
+            if (headCrc(channel, offset) != headCrc || tailCrc(channel, offset) != tailCrc) {
+                return "input was rewritten";
+            }
+            if (!endsWithNewline && size > offset) {
+                // the last loaded row had no line break; new bytes must start a new row
+                byte next = read(channel, offset, 1)[0];
+                if (next != '\n' && next != '\r') {
+                    return "last loaded row was extended";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long headCrc(FileChannel channel, long offset) throws IOException {
+        return crc(read(channel, 0, (int) Math.min(offset, WINDOW)));
+    }
+
+    private static long tailCrc(FileChannel channel, long offset) throws IOException {
+        int length = (int) Math.min(offset, WINDOW);
+        return crc(read(channel, offset - length, length));
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.array();
+    }
+}
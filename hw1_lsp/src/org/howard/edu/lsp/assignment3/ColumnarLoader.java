@@ -0,0 +1,336 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.howard.edu.lsp.assignment2.ValueDictionary;
+
+/**
+ * Writes transformed products to a columnar binary file, as a sibling of
+ * {@link OOETL.CSVLoader}. Each field is stored as one contiguous column, so
+ * a downstream job that only needs prices reads only the price column, and
+ * {@link ColumnarReader} can hand out columns straight from a memory-mapped
+ * file without parsing anything.
+ *
+ * Layout (little-endian, every section aligned to 8 bytes):
+ * <pre>
+ *   int   magic "PCOL", int version, int rowCount, int sectionCount
+ *   long  offset and long length of every section, in the order below
+ *   ids          int[rows]    ProductID
+ *   unscaled     long[rows]   price digits: price = unscaled / 10^scale
+ *   scales       byte[rows]   price scale, or OVERFLOW_SCALE (see below)
+ *   categories   int[rows]    code into the category dictionary
+ *   ranges       int[rows]    code into the price range dictionary
+ *   nameEnds     long[rows]   end of each name in nameBytes; a name starts
+ *                             where the previous one ends
+ *   nameBytes    byte[]       UTF-8 names, back to back
+ *   categoryDict             int count, then int length + UTF-8 bytes each
+ *   rangeDict                same encoding
+ *   overflow                 same encoding; prices too large for a long or
+ *                            with a scale outside a byte, as plain strings
+ * </pre>
+ * A row whose scale is {@link #OVERFLOW_SCALE} stores an index into the
+ * overflow section in its unscaled slot, so every price round-trips exactly.
+ *
+ * Columns are spilled to temporary files next to the output while rows are
+ * written and assembled into the final file on close, so memory use does not
+ * grow with the number of rows.
+ */
+final class ColumnarLoader {
+
+    static final int MAGIC = 0x50434F4C; // "PCOL"
+    static final int VERSION = 1;
+    static final byte OVERFLOW_SCALE = Byte.MIN_VALUE;
+
+    static final int IDS = 0;
+    static final int UNSCALED = 1;
+    static final int SCALES = 2;
+    static final int CATEGORIES = 3;
+    static final int RANGES = 4;
+    static final int NAME_ENDS = 5;
+    static final int NAME_BYTES = 6;
+    static final int CATEGORY_DICT = 7;
+    static final int RANGE_DICT = 8;
+    static final int OVERFLOW = 9;
+    static final int SECTION_COUNT = 10;
+    static final int HEADER_SIZE = 16 + SECTION_COUNT * 16;
+
+    private static final int SPILLED_COLUMNS = NAME_BYTES + 1;
+
+    private final String filePath;
+
+    ColumnarLoader(String filePath) {
+        this.filePath = filePath;
+    }
+
+    void load(List<Product> products) throws IOException {
+        try (ColumnWriter writer = open()) {
+            for (Product p : products) {
+                writer.write(p);
+            }
+            writer.commit();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Opens the output for row-at-a-time writing. The file only appears once
+     * the writer is committed and closed; until then any previous file is kept.
+     *
+     * @return a writer that must be committed and closed to produce the file
+     */
+    ColumnWriter open() throws IOException {
+        Path output = new File(filePath).toPath().toAbsolutePath();
+        Files.createDirectories(output.getParent());
+        return new ColumnWriter(output);
+    }
+
+    /**
+     * Buffers each column into its own temporary file.
+     */
+    static class ColumnWriter implements Closeable {
+        private final Path output;
+        private final Spill[] columns = new Spill[SPILLED_COLUMNS];
+        // Unbounded: every distinct value needs a code in this format.
+        private final ValueDictionary categories = new ValueDictionary(Integer.MAX_VALUE);
+        private final ValueDictionary ranges = new ValueDictionary(Integer.MAX_VALUE);
+        private final List<String> overflow = new ArrayList<>();
+        private long nameEnd;
+        private int rows;
+        private boolean committed;
+
+        ColumnWriter(Path output) throws IOException {
+            this.output = output;
+            try {
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = new Spill(Files.createTempFile(output.getParent(),
+                        output.getFileName() + ".col" + i + "-", ".tmp"));
+                }
+            } catch (IOException e) {
+                discard();
+                throw e;
+            }
+        }
+
+        /**
+         * @param p a transformed product; its price range must be set
+         */
+        public void write(Product p) {
+            if (rows == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Columnar file is limited to " + Integer.MAX_VALUE + " rows");
+            }
+            try {
+                columns[IDS].ensure(4).putInt(p.productId());
+                writePrice(p.price());
+                columns[CATEGORIES].ensure(4).putInt(categories.code(p.category()));
+                columns[RANGES].ensure(4).putInt(ranges.code(p.priceRange()));
+                byte[] name = p.name().getBytes(StandardCharsets.UTF_8);
+                nameEnd += name.length;
+                columns[NAME_ENDS].ensure(8).putLong(nameEnd);
+                columns[NAME_BYTES].put(name);
+                rows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writePrice(BigDecimal price) throws IOException {
+            int scale = price.scale();
+            if (scale > OVERFLOW_SCALE && scale <= Byte.MAX_VALUE && price.precision() <= 18) {
+                // movePointRight keeps the compact long form, so longValue() is a plain read
+                columns[UNSCALED].ensure(8).putLong(price.movePointRight(scale).longValue());
+                columns[SCALES].ensure(1).put((byte) scale);
+            } else {
+                columns[UNSCALED].ensure(8).putLong(overflow.size());
+                columns[SCALES].ensure(1).put(OVERFLOW_SCALE);
+                overflow.add(price.toString());
+            }
+        }
+
+        /**
+         * @return rows written so far
+         */
+        public int rowCount() {
+            return rows;
+        }
+
+        /**
+         * Marks the rows complete, so {@link #close()} assembles the file.
+         */
+        public void commit() {
+            committed = true;
+        }
+
+        /**
+         * If committed, writes the header, copies every spilled column into
+         * place and adds the dictionaries, then moves the result over the
+         * output. Either way the spilled columns are deleted.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                if (committed) {
+                    for (Spill column : columns) {
+                        column.flush();
+                    }
+                    assemble();
+                }
+            } finally {
+                discard();
+            }
+        }
+
+        private void assemble() throws IOException {
+            byte[][] tails = {encode(categories), encode(ranges), encode(overflow)};
+
+            long[] offsets = new long[SECTION_COUNT];
+            long[] lengths = new long[SECTION_COUNT];
+            long position = HEADER_SIZE;
+            for (int i = 0; i < SECTION_COUNT; i++) {
+                position = align(position);
+                offsets[i] = position;
+                lengths[i] = i < SPILLED_COLUMNS ? columns[i].size : tails[i - SPILLED_COLUMNS].length;
+                position += lengths[i];
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(SECTION_COUNT);
+            for (int i = 0; i < SECTION_COUNT; i++) {
+                header.putLong(offsets[i]).putLong(lengths[i]);
+            }
+            header.flip();
+
+            Path temp = output.resolveSibling(output.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeFully(out, header, 0);
+                for (int i = 0; i < SECTION_COUNT; i++) {
+                    if (i < SPILLED_COLUMNS) {
+                        columns[i].copyTo(out, offsets[i]);
+                    } else {
+                        writeFully(out, ByteBuffer.wrap(tails[i - SPILLED_COLUMNS]), offsets[i]);
+                    }
+                }
+                out.truncate(position);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private void discard() throws IOException {
+            for (Spill column : columns) {
+                if (column != null) {
+                    column.delete();
+                }
+            }
+        }
+    }
+
+    private static byte[] encode(ValueDictionary dictionary) {
+        List<String> values = new ArrayList<>(dictionary.size());
+        for (int code = 0; code < dictionary.size(); code++) {
+            values.add(dictionary.decode(code));
+        }
+        return encode(values);
+    }
+
+    private static byte[] encode(List<String> values) {
+        byte[][] encoded = new byte[values.size()][];
+        int size = 4;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = values.get(i).getBytes(StandardCharsets.UTF_8);
+            size += 4 + encoded[i].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(encoded.length);
+        for (byte[] value : encoded) {
+            buffer.putInt(value.length).put(value);
+        }
+        return buffer.array();
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += out.write(buffer, position);
+        }
+    }
+
+    /**
+     * One column being written to a temporary file through a reusable buffer.
+     */
+    private static final class Spill {
+        private final Path path;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private long size;
+
+        Spill(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            size += bytes;
+            return buffer;
+        }
+
+        void put(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                int n = Math.min(buffer.remaining(), bytes.length - offset);
+                if (n == 0) {
+                    flush();
+                    continue;
+                }
+                buffer.put(bytes, offset, n);
+                offset += n;
+            }
+            size += bytes.length;
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void copyTo(FileChannel out, long position) throws IOException {
+            long copied = 0;
+            while (copied < size) {
+                copied += channel.transferTo(copied, size - copied, out.position(position + copied));
+            }
+        }
+
+        void delete() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads a file written by {@link ColumnarLoader}. Every column is
+ * memory-mapped and returned as a read-only view of the mapping, so a scan
+ * over one column touches only that column's pages and copies nothing onto
+ * the heap. Per-row accessors that build Strings or BigDecimals are provided
+ * for convenience.
+ *
+ * Views share the mapping but each has its own position, so they can be
+ * scanned independently. The mappings stay valid after {@link #close()}.
+ * Each section is mapped on its own and so must be under 2 GiB.
+ *
+ * The reader is public so jobs outside this package can scan the file;
+ * {@link #product(int)} stays package-private because {@link Product} is.
+ */
+public final class ColumnarReader implements Closeable {
+
+    /**
+     * Scale stored for a price kept as text; {@link #price(int)} decodes it.
+     */
+    public static final byte OVERFLOW_SCALE = ColumnarLoader.OVERFLOW_SCALE;
+
+    private final FileChannel channel;
+    private final int rows;
+    private final IntBuffer ids;
+    private final LongBuffer unscaled;
+    private final ByteBuffer scales;
+    private final IntBuffer categoryCodes;
+    private final IntBuffer rangeCodes;
+    private final LongBuffer nameEnds;
+    private final ByteBuffer nameBytes;
+    private final List<String> categories;
+    private final List<String> ranges;
+    private final List<String> overflow;
+
+    private ColumnarReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = ByteBuffer.allocate(ColumnarLoader.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // keep reading until the header is complete or the file ends
+        }
+        header.flip();
+        if (header.remaining() < 16 || header.getInt() != ColumnarLoader.MAGIC) {
+            throw new IOException("Not a columnar product file");
+        }
+        int version = header.getInt();
+        if (version != ColumnarLoader.VERSION) {
+            throw new IOException("Unsupported columnar file version " + version);
+        }
+        this.rows = header.getInt();
+        if (header.getInt() != ColumnarLoader.SECTION_COUNT || header.remaining() < ColumnarLoader.SECTION_COUNT * 16) {
+            throw new IOException("Columnar file header is damaged");
+        }
+        ByteBuffer[] sections = new ByteBuffer[ColumnarLoader.SECTION_COUNT];
+        for (int i = 0; i < sections.length; i++) {
+            long offset = header.getLong();
+            long length = header.getLong();
+            if (offset < 0 || length < 0 || offset + length > channel.size()) {
+                throw new IOException("Columnar file is truncated");
+            }
+            sections[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        this.ids = sections[ColumnarLoader.IDS].asIntBuffer();
+        this.unscaled = sections[ColumnarLoader.UNSCALED].asLongBuffer();
+        this.scales = sections[ColumnarLoader.SCALES];
+        this.categoryCodes = sections[ColumnarLoader.CATEGORIES].asIntBuffer();
+        this.rangeCodes = sections[ColumnarLoader.RANGES].asIntBuffer();
+        this.nameEnds = sections[ColumnarLoader.NAME_ENDS].asLongBuffer();
+        this.nameBytes = sections[ColumnarLoader.NAME_BYTES];
+        this.categories = decode(sections[ColumnarLoader.CATEGORY_DICT]);
+        this.ranges = decode(sections[ColumnarLoader.RANGE_DICT]);
+        this.overflow = decode(sections[ColumnarLoader.OVERFLOW]);
+        if (ids.limit() != rows || unscaled.limit() != rows || scales.limit() != rows
+                || categoryCodes.limit() != rows || rangeCodes.limit() != rows || nameEnds.limit() != rows) {
+            throw new IOException("Columnar file sections do not match the row count");
+        }
+    }
+
+    /**
+     * Maps a columnar file for reading.
+     *
+     * @param path the file written by {@link ColumnarLoader}
+     * @return a reader; close it to release the file handle
+     */
+    public static ColumnarReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new ColumnarReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of rows in the file
+     */
+    public int rowCount() {
+        return rows;
+    }
+
+    /**
+     * @return the ProductID column
+     */
+    public IntBuffer productIds() {
+        return ids.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return the unscaled price digits; see {@link #priceScales()}
+     */
+    public LongBuffer priceUnscaled() {
+        return unscaled.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return the price scale of every row, or
+     *         {@link #OVERFLOW_SCALE} for prices kept as text
+     */
+    public ByteBuffer priceScales() {
+        return scales.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return category codes; decode them with {@link #categoryDictionary()}
+     */
+    public IntBuffer categoryCodes() {
+        return categoryCodes.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return price range codes; decode them with {@link #priceRangeDictionary()}
+     */
+    public IntBuffer priceRangeCodes() {
+        return rangeCodes.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return distinct categories, indexed by code
+     */
+    public List<String> categoryDictionary() {
+        return categories;
+    }
+
+    /**
+     * @return distinct price ranges, indexed by code
+     */
+    public List<String> priceRangeDictionary() {
+        return ranges;
+    }
+
+    /**
+     * @param row 0-based row index
+     * @return the UTF-8 bytes of one name, as a view of the mapping
+     */
+    public ByteBuffer nameBytes(int row) {
+        int start = (int) nameStart(row);
+        int end = (int) nameEnds.get(row);
+        return nameBytes.asReadOnlyBuffer().position(start).limit(end).slice();
+    }
+
+    /**
+     * @param row 0-based row index
+     * @return the name, decoded from UTF-8
+     */
+    public String name(int row) {
+        long start = nameStart(row);
+        byte[] bytes = new byte[(int) (nameEnds.get(row) - start)];
+        nameBytes.get((int) start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param row 0-based row index
+     * @return the price with the scale it was written with
+     */
+    public BigDecimal price(int row) {
+        byte scale = scales.get(row);
+        long digits = unscaled.get(row);
+        if (scale == ColumnarLoader.OVERFLOW_SCALE) {
+            return new BigDecimal(overflow.get((int) digits));
+        }
+        return BigDecimal.valueOf(digits, scale);
+    }
+
+    /**
+     * @param row 0-based row index
+     * @return the decoded category
+     */
+    public String category(int row) {
+        return categories.get(categoryCodes.get(row));
+    }
+
+    /**
+     * @param row 0-based row index
+     * @return the decoded price range
+     */
+    public String priceRange(int row) {
+        return ranges.get(rangeCodes.get(row));
+    }
+
+    /**
+     * @return the full record for one row
+     */
+    Product product(int row) {
+        return new Product(ids.get(row), name(row), price(row), category(row), priceRange(row));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long nameStart(int row) {
+        return row == 0 ? 0 : nameEnds.get(row - 1);
+    }
+
+    private static List<String> decode(ByteBuffer section) throws IOException {
+        if (section.remaining() < 4) {
+            throw new IOException("Columnar dictionary is damaged");
+        }
+        int count = section.getInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[section.getInt()];
+            section.get(bytes);
+            values.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return Collections.unmodifiableList(values);
+    }
+}
@@ -0,0 +1,138 @@
+package org.howard.edu.lsp.assignment3;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * JUnit 5 test class for ColumnarReader class, reading files written by ColumnarLoader
+ */
+public class ColumnarReaderTesting {
+
+    private Path output;
+
+    /**
+     * Picks an output file in a fresh temporary directory before each test
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        Path dir = Files.createTempDirectory("columnar");
+        dir.toFile().deleteOnExit();
+        output = dir.resolve("products.pcol");
+        output.toFile().deleteOnExit();
+    }
+
+    @Test
+    @DisplayName("Test ColumnarReader: ids, names, categories and price ranges should round-trip")
+    void testRoundTrip() throws IOException {
+        List<Product> products = List.of(
+            new Product(1, "Book", new BigDecimal("12.50"), "Education", "Low"),
+            new Product(-7, "", new BigDecimal("0"), "Electronics", "Low"),
+            new Product(Integer.MAX_VALUE, "Café, \"crème\"", new BigDecimal("499.995"), "Education", "High"),
+            new Product(42, "日本語の名前", new BigDecimal("1000"), "Premium Electronics", "Premium"));
+        new ColumnarLoader(output.toString()).load(products);
+
+        try (ColumnarReader reader = ColumnarReader.open(output)) {
+            assertEquals(4, reader.rowCount(), "Row count should be 4");
+            IntBuffer ids = reader.productIds();
+            for (int row = 0; row < products.size(); row++) {
+                assertEquals(products.get(row).productId(), ids.get(), "ProductID of row " + row);
+                assertEquals(products.get(row).name(), reader.name(row), "Name of row " + row);
+                assertEquals(products.get(row).category(), reader.category(row), "Category of row " + row);
+                assertEquals(products.get(row).priceRange(), reader.priceRange(row), "Price range of row " + row);
+                assertEquals(products.get(row), reader.product(row), "Row " + row + " should round-trip");
+            }
+            assertEquals(List.of("Education", "Electronics", "Premium Electronics"), reader.categoryDictionary(),
+                "Categories should be coded in order of first appearance");
+            assertEquals(List.of("Low", "High", "Premium"), reader.priceRangeDictionary(),
+                "Price ranges should be coded in order of first appearance");
+            IntBuffer codes = reader.categoryCodes();
+            assertEquals(0, codes.get(2), "Repeated category should reuse its code");
+            ByteBuffer name = reader.nameBytes(3);
+            assertEquals("日本語の名前".getBytes(StandardCharsets.UTF_8).length, name.remaining(),
+                "nameBytes should cover the UTF-8 bytes of the name");
+        }
+    }
+
+    @Test
+    @DisplayName("Test price(int row): prices should keep their scale, including those stored as text")
+    void testPrices() throws IOException {
+        BigDecimal[] prices = {
+            new BigDecimal("19.99"),
+            new BigDecimal("1E+3"),                     // negative scale, still fits a long
+            new BigDecimal("123456789012345678901.5"),  // too many digits for a long
+            new BigDecimal("1E-200"),                   // scale outside a byte
+            new BigDecimal("-0.000001")
+        };
+        ColumnarLoader loader = new ColumnarLoader(output.toString());
+        try (ColumnarLoader.ColumnWriter writer = loader.open()) {
+            for (int i = 0; i < prices.length; i++) {
+                writer.write(new Product(i, "Item " + i, prices[i], "Misc", "Low"));
+            }
+            writer.commit();
+        }
+
+        try (ColumnarReader reader = ColumnarReader.open(output)) {
+            ByteBuffer scales = reader.priceScales();
+            for (int row = 0; row < prices.length; row++) {
+                assertEquals(prices[row], reader.price(row), "Price of row " + row + " should be exact");
+            }
+            assertEquals(2, scales.get(0), "19.99 should be stored with scale 2");
+            assertEquals(1999L, reader.priceUnscaled().get(0), "19.99 should be stored as 1999");
+            assertEquals(-3, scales.get(1), "1E+3 should be stored with scale -3");
+            assertEquals(ColumnarReader.OVERFLOW_SCALE, scales.get(2), "A 22-digit price should overflow");
+            assertEquals(ColumnarReader.OVERFLOW_SCALE, scales.get(3), "Scale 200 should overflow");
+            assertEquals(6, scales.get(4), "-0.000001 should be stored with scale 6");
+        }
+    }
+
+    @Test
+    @DisplayName("Test ColumnarReader: a file with no rows should have empty columns and dictionaries")
+    void testEmptyFile() throws IOException {
+        new ColumnarLoader(output.toString()).load(List.of());
+        try (ColumnarReader reader = ColumnarReader.open(output)) {
+            assertEquals(0, reader.rowCount(), "Row count should be 0");
+            assertEquals(0, reader.productIds().remaining(), "ProductID column should be empty");
+            assertTrue(reader.categoryDictionary().isEmpty(), "Category dictionary should be empty");
+        }
+    }
+
+    @Test
+    @DisplayName("Test ColumnWriter close(): an uncommitted writer should keep the previous file")
+    void testUncommittedWriter() throws IOException {
+        ColumnarLoader loader = new ColumnarLoader(output.toString());
+        loader.load(List.of(new Product(1, "Kept", new BigDecimal("1.00"), "Misc", "Low")));
+        try (ColumnarLoader.ColumnWriter writer = loader.open()) {
+            writer.write(new Product(2, "Dropped", new BigDecimal("2.00"), "Misc", "Low"));
+        }
+        try (ColumnarReader reader = ColumnarReader.open(output)) {
+            assertEquals(1, reader.rowCount(), "The earlier file should be untouched");
+            assertEquals("Kept", reader.name(0), "The earlier row should still be there");
+        }
+        try (Stream<Path> files = Files.list(output.getParent())) {
+            assertEquals(1, files.count(), "No temporary files should be left behind");
+        }
+    }
+
+    @Test
+    @DisplayName("Test open(Path path): should reject a file that is not columnar")
+    void testNotColumnar() throws IOException {
+        Files.writeString(output, "ProductID,Name,Price,Category\n");
+        Exception exception = assertThrows(IOException.class, () -> {
+            ColumnarReader.open(output);
+        });
+        assertEquals("Not a columnar product file", exception.getMessage());
+    }
+}
@@ -0,0 +1,177 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.howard.edu.lsp.assignment2.CsvByteWriter;
+
+/**
+ * Opens input and output files that may be gzip-compressed, choosing the
+ * format from the file name: a name ending in {@code .gz} is gzip, anything
+ * else is read and written as is.
+ *
+ * A gzip input is inflated on a background thread that stays a few blocks
+ * ahead of the reader, so decompression runs while the caller parses the
+ * previous block instead of in between.
+ */
+final class CompressedFiles {
+
+    private static final int BLOCK_SIZE = 1 << 18;
+    private static final int BLOCKS_AHEAD = 4;
+
+    private CompressedFiles() {
+    }
+
+    /**
+     * @param path a file name
+     * @return true if the name selects gzip
+     */
+    static boolean isCompressed(Path path) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    /**
+     * Opens a file for reading, decompressing it if its name selects gzip.
+     *
+     * @param path the input file
+     * @return the uncompressed bytes; close it to release the file and thread
+     */
+    static InputStream openInput(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        if (!isCompressed(path)) {
+            return in;
+        }
+        try {
+            return new ReadAheadInputStream(new GZIPInputStream(in, 1 << 16), "gzip-inflate " + path.getFileName());
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates or truncates a file and opens a CSV writer on it. The caller
+     * picks the format, because output is written under a temporary name
+     * and only the final name selects gzip.
+     *
+     * @param path     the file to write
+     * @param compress true to gzip the output
+     * @return a writer that must be closed to finish the file
+     */
+    static CsvByteWriter openWriter(Path path, boolean compress) throws IOException {
+        if (!compress) {
+            return CsvByteWriter.open(path);
+        }
+        return new CsvByteWriter(Channels.newChannel(new GZIPOutputStream(Files.newOutputStream(path), 1 << 16)));
+    }
+
+    /**
+     * Reads a source on its own thread into a bounded queue of blocks. An
+     * error on that thread is rethrown by the next read once the blocks
+     * read before it have been consumed.
+     */
+    private static final class ReadAheadInputStream extends InputStream {
+        private static final byte[] END = new byte[0];
+
+        private final BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(BLOCKS_AHEAD);
+        private final Thread reader;
+        private volatile IOException failure;
+        private byte[] block = new byte[0];
+        private int position;
+        private boolean ended;
+
+        ReadAheadInputStream(InputStream source, String name) {
+            reader = new Thread(() -> {
+                try (source) {
+                    while (true) {
+                        byte[] next = new byte[BLOCK_SIZE];
+                        int n = source.readNBytes(next, 0, BLOCK_SIZE);
+                        if (n == 0) {
+                            break;
+                        }
+                        blocks.put(n == BLOCK_SIZE ? next : Arrays.copyOf(next, n));
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                } catch (RuntimeException e) {
+                    failure = new IOException(e);
+                } catch (InterruptedException e) {
+                    return; // closed by the consumer
+                }
+                try {
+                    blocks.put(END);
+                } catch (InterruptedException e) {
+                    // closed by the consumer
+                }
+            }, name);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return block[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, block.length - position);
+            System.arraycopy(block, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.interrupt();
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * @return false at the end of the stream
+         */
+        private boolean fill() throws IOException {
+            while (position == block.length) {
+                if (ended) {
+                    return false;
+                }
+                try {
+                    block = blocks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for decompressed input");
+                }
+                position = 0;
+                if (block == END) {
+                    ended = true;
+                    if (failure != null) {
+                        throw failure;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
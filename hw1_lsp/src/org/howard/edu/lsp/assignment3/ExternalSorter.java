@@ -0,0 +1,286 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import org.howard.edu.lsp.assignment2.ValueDictionary;
+
+/**
+ * Sorts a stream of products that may not fit in memory.
+ *
+ * Rows are collected until their estimated heap size reaches the memory
+ * budget, then sorted and spilled to a temporary run file. When the input
+ * ends, the runs are merged with a k-way merge on a priority queue, at most
+ * {@value #MAX_FAN_IN} runs at a time; more runs than that are first merged
+ * into longer runs. Input that fits the budget is sorted in memory and never
+ * touches the disk.
+ *
+ * The sort is stable: rows that compare equal keep their input order, since
+ * each run is sorted stably and ties between runs go to the earlier run.
+ * Run files use a compact binary form in which categories and price ranges
+ * are dictionary codes, and are deleted by {@link #close()}.
+ */
+final class ExternalSorter implements Closeable {
+
+    /** Orders by ProductID. */
+    static final Comparator<Product> BY_PRODUCT_ID = Comparator.comparingInt(Product::productId);
+    /** Orders by price, numerically. */
+    static final Comparator<Product> BY_PRICE = Comparator.comparing(Product::price);
+
+    /** Default memory budget for buffered rows. */
+    static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    private static final int MAX_FAN_IN = 64;
+    private static final int RUN_BUFFER_SIZE = 1 << 16;
+    // rough heap cost of a Product, its BigDecimal and its name String, beyond the name's chars
+    private static final int ROW_OVERHEAD_BYTES = 160;
+    private static final byte OVERFLOW_SCALE = Byte.MIN_VALUE;
+
+    private final Comparator<Product> order;
+    private final long memoryBudget;
+    private final Path tempDir;
+    private final ValueDictionary dictionary = new ValueDictionary();
+    private final List<Path> runs = new ArrayList<>();
+    private final List<Path> files = new ArrayList<>();
+    private List<Product> buffer = new ArrayList<>();
+    private long buffered;
+
+    /**
+     * @param order        the sort order
+     * @param memoryBudget heap bytes rows may take before they are spilled
+     * @param tempDir      where run files are created
+     */
+    ExternalSorter(Comparator<Product> order, long memoryBudget, Path tempDir) {
+        this.order = order;
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+    }
+
+    /**
+     * @param key {@code id} or {@code price}
+     * @return the matching order
+     */
+    static Comparator<Product> order(String key) {
+        switch (key.toLowerCase(Locale.ROOT)) {
+            case "id":
+            case "productid":
+                return BY_PRODUCT_ID;
+            case "price":
+                return BY_PRICE;
+            default:
+                throw new IllegalArgumentException("Unknown sort key: " + key + " (expected id or price)");
+        }
+    }
+
+    void add(Product product) throws IOException {
+        buffer.add(product);
+        buffered += ROW_OVERHEAD_BYTES + 2L * product.name().length();
+        if (buffered >= memoryBudget) {
+            spill();
+        }
+    }
+
+    /**
+     * @return the number of run files written so far
+     */
+    int runCount() {
+        return runs.size();
+    }
+
+    /**
+     * Hands every row to the sink in sorted order. Call once, after the last
+     * {@link #add}.
+     */
+    void drainTo(RowSink sink) throws IOException {
+        if (runs.isEmpty()) {
+            buffer.sort(order);
+            for (Product p : buffer) {
+                sink.accept(p);
+            }
+            buffer = new ArrayList<>();
+            return;
+        }
+        spill();
+        buffer = null;
+        while (runs.size() > MAX_FAN_IN) {
+            List<Path> merged = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                List<Path> group = runs.subList(i, Math.min(i + MAX_FAN_IN, runs.size()));
+                Path run = newRun();
+                try (DataOutputStream out = openRun(run)) {
+                    merge(group, p -> writeRow(out, p));
+                }
+                deleteAll(group);
+                merged.add(run);
+            }
+            runs.clear();
+            runs.addAll(merged);
+        }
+        merge(runs, sink);
+    }
+
+    /**
+     * Deletes any run files that are left.
+     */
+    @Override
+    public void close() throws IOException {
+        deleteAll(files);
+        files.clear();
+        runs.clear();
+    }
+
+    /**
+     * Receives sorted rows.
+     */
+    interface RowSink {
+        void accept(Product product) throws IOException;
+    }
+
+    private void spill() throws IOException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        buffer.sort(order);
+        Path run = newRun();
+        runs.add(run);
+        try (DataOutputStream out = openRun(run)) {
+            for (Product p : buffer) {
+                writeRow(out, p);
+            }
+        }
+        buffer.clear();
+        buffered = 0;
+    }
+
+    private void merge(List<Path> group, RowSink sink) throws IOException {
+        List<RunReader> readers = new ArrayList<>(group.size());
+        try {
+            PriorityQueue<RunReader> heads = new PriorityQueue<>(group.size(),
+                (a, b) -> {
+                    int c = order.compare(a.head, b.head);
+                    return c != 0 ? c : Integer.compare(a.index, b.index);
+                });
+            for (Path run : group) {
+                RunReader reader = new RunReader(run, readers.size());
+                readers.add(reader);
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+            while (!heads.isEmpty()) {
+                RunReader next = heads.poll();
+                sink.accept(next.head);
+                if (next.advance()) {
+                    heads.add(next);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.in.close();
+            }
+        }
+    }
+
+    private Path newRun() throws IOException {
+        Path run = Files.createTempFile(tempDir, "sort-run-", ".bin");
+        files.add(run);
+        return run;
+    }
+
+    private static DataOutputStream openRun(Path run) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), RUN_BUFFER_SIZE));
+    }
+
+    private static void deleteAll(List<Path> paths) throws IOException {
+        for (Path p : paths) {
+            Files.deleteIfExists(p);
+        }
+    }
+
+    private void writeRow(DataOutputStream out, Product p) throws IOException {
+        out.writeInt(p.productId());
+        writeString(out, p.name());
+        BigDecimal price = p.price();
+        if (price.precision() <= 18 && price.scale() >= 0 && price.scale() < Byte.MAX_VALUE) {
+            out.writeByte(price.scale());
+            // movePointRight keeps the compact long form, so longValue() is a plain read
+            out.writeLong(price.movePointRight(price.scale()).longValue());
+        } else {
+            out.writeByte(OVERFLOW_SCALE);
+            writeString(out, price.toString());
+        }
+        writeCode(out, p.category());
+        writeCode(out, p.priceRange());
+    }
+
+    private void writeCode(DataOutputStream out, String value) throws IOException {
+        int code = dictionary.code(value);
+        out.writeInt(code);
+        if (code < 0) {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads one run back, one row ahead.
+     */
+    private final class RunReader {
+        final DataInputStream in;
+        final int index;
+        Product head;
+
+        RunReader(Path run, int index) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), RUN_BUFFER_SIZE));
+            this.index = index;
+        }
+
+        /**
+         * @return false at the end of the run
+         */
+        boolean advance() throws IOException {
+            int id;
+            try {
+                id = in.readInt();
+            } catch (EOFException e) {
+                head = null;
+                return false;
+            }
+            String name = readString(in);
+            byte scale = in.readByte();
+            BigDecimal price = scale == OVERFLOW_SCALE ? new BigDecimal(readString(in))
+                : BigDecimal.valueOf(in.readLong(), scale);
+            head = new Product(id, name, price, readCode(), readCode());
+            return true;
+        }
+
+        private String readCode() throws IOException {
+            int code = in.readInt();
+            return code < 0 ? readString(in) : dictionary.decode(code);
+        }
+    }
+}
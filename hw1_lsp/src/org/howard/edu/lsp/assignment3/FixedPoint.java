@@ -0,0 +1,84 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.math.BigDecimal;
+
+/**
+ * Price arithmetic on {@code long} cents, used by the fixed-point transform
+ * path. Every operation reports {@link #OVERFLOW} instead of returning a wrong
+ * value, so callers can fall back to {@link BigDecimal} for that row.
+ */
+final class FixedPoint {
+
+    /**
+     * Marker returned when a value cannot be represented exactly in cents.
+     */
+    static final long OVERFLOW = Long.MIN_VALUE;
+
+    private static final long[] POW10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L,
+        100_000_000L, 1_000_000_000L, 10_000_000_000L, 100_000_000_000L,
+        1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+        1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L,
+        1_000_000_000_000_000_000L
+    };
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Converts a price to cents without rounding.
+     *
+     * @param price the price to convert
+     * @return the price in cents, or {@link #OVERFLOW} if it has more than two
+     *         decimal places or does not fit in a long
+     */
+    static long toCents(BigDecimal price) {
+        int scale = price.scale();
+        if (scale < 0 || scale > 2 || price.precision() > 16) {
+            return OVERFLOW;
+        }
+        // movePointRight to scale 0 keeps the compact long representation, so
+        // longValue() reads it directly; unscaledValue() would build a BigInteger.
+        long unscaled = price.movePointRight(scale).longValue();
+        return unscaled * POW10[2 - scale];
+    }
+
+    /**
+     * Returns the digits of a decimal constant, e.g. 90 for 0.90.
+     *
+     * @param value the constant; its scale is {@code value.scale()}
+     * @return the unscaled value as a long
+     */
+    static long unscaled(BigDecimal value) {
+        return value.unscaledValue().longValueExact();
+    }
+
+    /**
+     * Multiplies cents by a decimal factor and rounds back to cents HALF_UP,
+     * matching {@code price.multiply(factor).setScale(2, RoundingMode.HALF_UP)}.
+     *
+     * @param cents          the price in cents
+     * @param factorUnscaled the factor's digits, e.g. 90 for 0.90
+     * @param factorScale    the factor's scale, e.g. 2 for 0.90
+     * @return the rounded result in cents, or {@link #OVERFLOW}
+     */
+    static long multiplyHalfUp(long cents, long factorUnscaled, int factorScale) {
+        if (factorScale < 0 || factorScale >= POW10.length) {
+            return OVERFLOW;
+        }
+        long product;
+        try {
+            product = Math.multiplyExact(cents, factorUnscaled);
+        } catch (ArithmeticException e) {
+            return OVERFLOW;
+        }
+        long divisor = POW10[factorScale];
+        long quotient = product / divisor;
+        long remainder = Math.abs(product % divisor);
+        if (remainder >= divisor - remainder) {
+            // ties round away from zero
+            quotient += Long.signum(product);
+        }
+        return quotient;
+    }
+}
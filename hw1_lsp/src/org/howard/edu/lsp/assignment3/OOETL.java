@@ -1,16 +1,36 @@
 package org.howard.edu.lsp.assignment3;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import org.howard.edu.lsp.assignment2.CsvByteWriter;
+import org.howard.edu.lsp.assignment2.CsvTokenizer;
+import org.howard.edu.lsp.assignment2.DeadLetterFile;
+import org.howard.edu.lsp.assignment2.EtlMetrics;
+import org.howard.edu.lsp.assignment2.IntIndexMap;
+import org.howard.edu.lsp.assignment2.PriceAggregates;
+import org.howard.edu.lsp.assignment2.ValueDictionary;
 
 /**
  * Orchestrates the entire Extract, Transform, and Load (ETL) process.
@@ -21,37 +41,513 @@ public class OOETL {
 
     private static final String INPUT_FILE = "data" + File.separator + "products.csv";
     private static final String OUTPUT_FILE = "data" + File.separator + "transformed_products.csv";
+    private static final String COLUMNAR_FILE = "data" + File.separator + "transformed_products.pcol";
+    static final String DEAD_LETTER_FILE = "data" + File.separator + "rejected_products.csv";
+    private static final String METRICS_FILE = "data" + File.separator + "etl_metrics.properties";
+    static final String AGGREGATES_FILE = "data" + File.separator + "aggregates.csv";
 
     /**
      * The main entry point for the ETL application.
      *
-     * @param args Command line arguments (not used).
+     * @param args Command line arguments, see {@link Options}.
      */
     public static void main(String[] args) {
         try {
-            // 1. Create objects for each stage of the pipeline
-            CSVExtractor extractor = new CSVExtractor(INPUT_FILE);
-            ProductTransformer transformer = new ProductTransformer();
-            CSVLoader loader = new CSVLoader(OUTPUT_FILE);
+            Options options = Options.parse(args);
+            EtlMetrics metrics = new EtlMetrics();
+            if (options.metricsFile != null) {
+                metrics.register("OOETL");
+            }
+            try (DeadLetterFile deadLetters = options.deadLetterFile == null ? null
+                    : new DeadLetterFile(Paths.get(options.deadLetterFile), options.maxRejects, options.maxRejectRate)) {
+                run(options, deadLetters, metrics);
+                if (deadLetters != null) {
+                    metrics.setRejectedRows(deadLetters.rejected());
+                    System.out.println("EXTRACT: Rejected " + deadLetters.rejected() + " rows, see "
+                        + options.deadLetterFile);
+                }
+            }
+            if (options.metricsFile != null) {
+                metrics.print(System.out);
+                metrics.writeSummary(Paths.get(options.metricsFile));
+                System.out.println("METRICS: Wrote metrics to " + options.metricsFile);
+                metrics.unregister();
+            }
+
+            System.out.println("\nETL Process Completed Successfully.");
+
+        } catch (Exception e) {
+            System.err.println("\nETL Process Failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
 
-            // 2. Execute the ETL process
+    /**
+     * Builds the stages for the selected mode and runs them.
+     */
+    private static void run(Options options, DeadLetterFile deadLetters, EtlMetrics metrics) throws IOException {
+        // 1. Create objects for each stage of the pipeline
+        CSVExtractor extractor = new CSVExtractor(options.inputFile, deadLetters);
+        RuleEngine rules = options.rulesFile == null ? null : RuleEngine.load(options.rulesFile);
+        ProductTransformer transformer = new ProductTransformer(options.fixedPoint, rules);
+        PriceAggregates aggregates = options.aggregatesFile == null ? null : new PriceAggregates();
+        CSVLoader loader = new CSVLoader(options.outputFile, true, aggregates);
+        ColumnarLoader columnar = options.columnar ? new ColumnarLoader(COLUMNAR_FILE) : null;
+
+        // 2. Execute the ETL process
+        if (options.incremental) {
+            System.out.println("Starting incremental ETL process from a single file...");
+            runIncremental(extractor, transformer, loader);
+        } else if (options.batchSource != null) {
+            System.out.println("Starting batch ETL process from " + options.batchSource + "...");
+            runShards(options, transformer);
+        } else if (options.sortOrder != null) {
+            System.out.println("Starting sorted ETL process from a single file...");
+            runSorted(extractor, transformer, loader, columnar, options);
+        } else if (options.pipelined) {
+            System.out.println("Starting pipelined ETL process from a single file...");
+            runPipelined(extractor, transformer, loader, options, metrics);
+        } else if (options.streaming) {
+            System.out.println("Starting streaming ETL process from a single file...");
+            runStreaming(extractor, transformer, loader, columnar);
+        } else {
             System.out.println("Starting ETL process from a single file...");
+            ParallelTransform parallel = options.parallelTransform
+                ? new ParallelTransform(options.threads, options.minChunk) : null;
+            try {
+                runBatch(extractor, transformer, parallel, loader, columnar, options.dedupe, metrics);
+            } finally {
+                if (parallel != null) {
+                    parallel.shutdown();
+                }
+            }
+        }
+        if (aggregates != null) {
+            aggregates.write(Paths.get(options.aggregatesFile));
+            System.out.println("LOAD: Wrote aggregates to " + options.aggregatesFile);
+        }
+    }
+
+    /**
+     * Streams rows through the transform into an {@link ExternalSorter} and
+     * loads them in sorted order. Memory use is bounded by the sort budget
+     * rather than the input size.
+     */
+    private static void runSorted(CSVExtractor extractor, ProductTransformer transformer, CSVLoader loader,
+            ColumnarLoader columnar, Options options) throws IOException {
+        Path tempDir = Paths.get(options.sortTempDir);
+        Files.createDirectories(tempDir);
+        long[] transformed = new long[1];
+        try (ExternalSorter sorter = new ExternalSorter(ExternalSorter.order(options.sortOrder),
+                options.sortMemoryMb << 20, tempDir)) {
+            long read = extractor.extract(product -> {
+                try {
+                    sorter.add(transformer.applyTransformations(product));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                transformed[0]++;
+            });
+            System.out.println("EXTRACT: Read " + read + " rows.");
+            System.out.println("TRANSFORM: Transformed " + transformed[0] + " rows.");
+            System.out.println("SORT: Sorted by " + options.sortOrder + " using " + sorter.runCount()
+                + " spilled runs.");
 
-            List<Product> extractedProducts = extractor.extract();
-            System.out.println("EXTRACT: Read " + extractedProducts.size() + " rows.");
+            try (CSVLoader.RowWriter writer = loader.open(extractor::getHeader);
+                 ColumnarLoader.ColumnWriter columns = columnar == null ? null : columnar.open()) {
+                sorter.drainTo(p -> {
+                    writer.write(p);
+                    if (columns != null) {
+                        columns.write(p);
+                    }
+                });
+                writer.commit();
+                if (columns != null) {
+                    columns.commit();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        System.out.println("LOAD: Wrote data to " + loader.filePath());
+        if (columnar != null) {
+            System.out.println("LOAD: Wrote columnar data to " + COLUMNAR_FILE);
+        }
+    }
 
-            List<Product> transformedProducts = transformer.transform(extractedProducts);
-            System.out.println("TRANSFORM: Transformed " + transformedProducts.size() + " rows.");
+    /**
+     * Runs each stage to completion before starting the next one.
+     * Every stage holds the full dataset in memory.
+     *
+     * @param parallel transforms on a worker pool, or null to transform on this thread
+     * @param dedupe   true to write only the last row of each ProductID
+     */
+    private static void runBatch(CSVExtractor extractor, ProductTransformer transformer, ParallelTransform parallel,
+            CSVLoader loader, ColumnarLoader columnar, boolean dedupe, EtlMetrics metrics) throws IOException {
+        EtlMetrics.StageTimer timer = metrics.start(EtlMetrics.Stage.EXTRACT);
+        List<Product> extractedProducts = extractor.extract();
+        timer.close();
+        metrics.addRows(EtlMetrics.Stage.EXTRACT, extractedProducts.size());
+        metrics.addBytes(EtlMetrics.Stage.EXTRACT, Files.size(Paths.get(extractor.filePath())));
+        System.out.println("EXTRACT: Read " + extractedProducts.size() + " rows.");
 
-            String header = extractor.getHeader();
-            loader.load(transformedProducts, header);
-            System.out.println("LOAD: Wrote data to " + OUTPUT_FILE);
+        timer = metrics.start(EtlMetrics.Stage.TRANSFORM);
+        List<Product> transformedProducts = parallel == null ? transformer.transform(extractedProducts)
+            : parallel.transform(transformer, extractedProducts, metrics);
+        timer.close();
+        metrics.addRows(EtlMetrics.Stage.TRANSFORM, transformedProducts.size());
+        System.out.println("TRANSFORM: Transformed " + transformedProducts.size() + " rows.");
 
-            System.out.println("\nETL Process Completed Successfully.");
+        timer = metrics.start(EtlMetrics.Stage.LOAD);
+        if (dedupe) {
+            int before = transformedProducts.size();
+            transformedProducts = IntIndexMap.keepLast(transformedProducts, Product::productId);
+            System.out.println("LOAD: Dropped " + (before - transformedProducts.size()) + " duplicate rows.");
+        }
+        String header = extractor.getHeader();
+        loader.load(transformedProducts, header);
+        metrics.addBytes(EtlMetrics.Stage.LOAD, Files.size(Paths.get(loader.filePath())));
+        System.out.println("LOAD: Wrote data to " + loader.filePath());
+        if (columnar != null) {
+            columnar.load(transformedProducts);
+            metrics.addBytes(EtlMetrics.Stage.LOAD, Files.size(Paths.get(COLUMNAR_FILE)));
+            System.out.println("LOAD: Wrote columnar data to " + COLUMNAR_FILE);
+        }
+        timer.close();
+        metrics.addRows(EtlMetrics.Stage.LOAD, transformedProducts.size());
+    }
 
-        } catch (Exception e) {
-            System.err.println("\nETL Process Failed: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Pushes each row from the reader through the transformer and straight into
+     * the writer, so heap usage stays constant regardless of the input size.
+     * The output and the reported row counts match {@link #runBatch}.
+     */
+    private static void runStreaming(CSVExtractor extractor, ProductTransformer transformer, CSVLoader loader,
+            ColumnarLoader columnar) throws IOException {
+        long[] transformed = new long[1];
+        long read;
+        try (CSVLoader.RowWriter writer = loader.open(extractor::getHeader);
+             ColumnarLoader.ColumnWriter columns = columnar == null ? null : columnar.open()) {
+            read = extractor.extract(product -> {
+                Product result = transformer.applyTransformations(product);
+                writer.write(result);
+                if (columns != null) {
+                    columns.write(result);
+                }
+                transformed[0]++;
+            });
+            writer.commit();
+            if (columns != null) {
+                columns.commit();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        System.out.println("EXTRACT: Read " + read + " rows.");
+        System.out.println("TRANSFORM: Transformed " + transformed[0] + " rows.");
+        System.out.println("LOAD: Wrote data to " + loader.filePath());
+        if (columnar != null) {
+            System.out.println("LOAD: Wrote columnar data to " + COLUMNAR_FILE);
+        }
+    }
+
+    /**
+     * Runs extract, transform and load on separate threads so I/O and
+     * transformation overlap. The output matches {@link #runBatch}.
+     */
+    private static void runPipelined(CSVExtractor extractor, ProductTransformer transformer, CSVLoader loader,
+            Options options, EtlMetrics metrics) throws IOException {
+        StagePipeline pipeline = new StagePipeline(options.batchSize, options.queueDepth);
+        pipeline.run(extractor, transformer, loader, metrics);
+        metrics.addRows(EtlMetrics.Stage.EXTRACT, pipeline.rowsRead());
+        metrics.addBytes(EtlMetrics.Stage.EXTRACT, Files.size(Paths.get(extractor.filePath())));
+        metrics.addRows(EtlMetrics.Stage.TRANSFORM, pipeline.rowsTransformed());
+        metrics.addRows(EtlMetrics.Stage.LOAD, pipeline.rowsWritten());
+        metrics.addBytes(EtlMetrics.Stage.LOAD, Files.size(Paths.get(loader.filePath())));
+        System.out.println("EXTRACT: Read " + pipeline.rowsRead() + " rows.");
+        System.out.println("TRANSFORM: Transformed " + pipeline.rowsTransformed() + " rows.");
+        System.out.println("LOAD: Wrote data to " + loader.filePath());
+    }
+
+    /**
+     * Loads only the rows appended to the input since the last successful
+     * run, using the checkpoint stored next to the output. Falls back to a
+     * full rebuild when there is no usable checkpoint, when the input was
+     * truncated or rewritten, or when the rules or price mode changed. A new checkpoint is written after every load.
+     *
+     * The input size is fixed when the run starts, so rows appended while
+     * the run is in progress are picked up by the next one.
+     */
+    private static void runIncremental(CSVExtractor extractor, ProductTransformer transformer, CSVLoader loader)
+            throws IOException {
+        Path input = Paths.get(extractor.filePath());
+        Path output = Paths.get(loader.filePath());
+        Path checkpointFile = Checkpoint.pathFor(output);
+        long end = Files.size(input);
+
+        Checkpoint previous = Checkpoint.read(checkpointFile);
+        String reason = previous == null ? "no checkpoint found"
+            : previous.staleReason(input, output, transformer.settings());
+        long start = 0;
+        long previousRows = 0;
+        if (reason == null) {
+            start = previous.offset;
+            previousRows = previous.rows;
+            System.out.println("CHECKPOINT: Resuming after " + previousRows + " rows at byte " + start + ".");
+        } else {
+            System.out.println("CHECKPOINT: Full rebuild, " + reason + ".");
+        }
+
+        long read = 0;
+        if (start < end) {
+            try (CSVLoader.RowWriter writer = start == 0 ? loader.open(extractor::getHeader) : loader.append()) {
+                read = extractor.extractRange(start, end, product ->
+                    writer.write(transformer.applyTransformations(product)));
+                writer.commit();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        } else if (start == 0) {
+            throw new IOException("CSV file is empty or header is missing.");
+        }
+        System.out.println("EXTRACT: Read " + read + " new rows.");
+        System.out.println("TRANSFORM: Transformed " + read + " rows.");
+        if (start == 0) {
+            System.out.println("LOAD: Wrote data to " + loader.filePath());
+        } else if (read > 0) {
+            System.out.println("LOAD: Appended data to " + loader.filePath());
+        } else {
+            System.out.println("LOAD: " + loader.filePath() + " is already up to date");
+        }
+
+        Checkpoint.capture(input, end, previousRows + read, Files.size(output), transformer.settings())
+            .write(checkpointFile);
+    }
+
+    /**
+     * Streams every shard matched by {@code --batch} through its own extractor
+     * and loader on a shared worker pool, then prints per-file throughput.
+     */
+    private static void runShards(Options options, ProductTransformer transformer) throws IOException {
+        List<Path> shards = BatchRunner.resolveShards(options.batchSource, Paths.get(options.outputDir),
+            options.mergeFile == null ? null : Paths.get(options.mergeFile));
+        BatchRunner runner = new BatchRunner(options.threads, transformer);
+        try {
+            long start = System.nanoTime();
+            List<BatchRunner.ShardResult> results;
+            if (options.mergeFile != null) {
+                results = runner.runMerged(shards, Paths.get(options.mergeFile));
+                System.out.println("LOAD: Merged " + shards.size() + " files into " + options.mergeFile);
+            } else {
+                results = runner.runPerShard(shards, Paths.get(options.outputDir));
+                System.out.println("LOAD: Wrote " + shards.size() + " files to " + options.outputDir);
+            }
+            BatchRunner.report(results, System.nanoTime() - start);
+        } finally {
+            runner.shutdown();
+        }
+    }
+
+    /**
+     * Command line switches accepted by {@link #main(String[])}:
+     * <ul>
+     *   <li>{@code --input=FILE} reads FILE instead of {@code data/products.csv};</li>
+     *   <li>{@code --output=FILE} writes FILE instead of
+     *       {@code data/transformed_products.csv}. An input or output name ending
+     *       in {@code .gz} is read or written gzip-compressed;</li>
+     *   <li>{@code --streaming} runs the pipeline one row at a time instead of
+     *       materializing each stage in memory;</li>
+     *   <li>{@code --fixed-point} transforms prices as long cents;</li>
+     *   <li>{@code --rules=FILE} loads the transformation rules from FILE;</li>
+     *   <li>{@code --columnar} also writes the result in the binary columnar
+     *       format of {@link ColumnarLoader} to {@code data/transformed_products.pcol};</li>
+     *   <li>{@code --lenient} or {@code --lenient=FILE} skips rows that fail to
+     *       parse and records them in a dead-letter file (default
+     *       {@code data/rejected_products.csv}) instead of failing the run;</li>
+     *   <li>{@code --max-rejects=N} and {@code --max-reject-rate=R} still fail a
+     *       lenient run once more than N rows, or more than the fraction R of
+     *       all rows, were rejected;</li>
+     *   <li>{@code --metrics} or {@code --metrics=FILE} publishes per-stage
+     *       timings over JMX and writes them to a summary file (default
+     *       {@code data/etl_metrics.properties}); default and --pipelined modes only;</li>
+     *   <li>{@code --incremental} loads only the rows appended since the last
+     *       run and appends them to the output;</li>
+     *   <li>{@code --batch=DIR|GLOB} processes every matching CSV file instead
+     *       of {@code data/products.csv};</li>
+     *   <li>{@code --out-dir=DIR} receives one {@code transformed_<name>} per
+     *       shard in batch mode (default {@code data});</li>
+     *   <li>{@code --merge=FILE} writes all shards to one file instead;</li>
+     *   <li>{@code --threads=N} sets the batch and parallel transform worker
+     *       count (default: one per core);</li>
+     *   <li>{@code --dedupe} writes one row per ProductID, with the values of
+     *       its last row at the position of its first; default mode only;</li>
+     *   <li>{@code --aggregates} or {@code --aggregates=FILE} also writes the
+     *       count, sum, min and max price per category and price range (default
+     *       {@code data/aggregates.csv}); not with --incremental or --batch;</li>
+     *   <li>{@code --sort=id} or {@code --sort=price} writes the output ordered
+     *       by ProductID or price, using an external merge sort so the input
+     *       does not have to fit in memory; rows with equal keys keep their
+     *       input order;</li>
+     *   <li>{@code --sort-memory=MB} heap the sort may fill before spilling a
+     *       sorted run to disk (default 64);</li>
+     *   <li>{@code --sort-temp=DIR} where sorted runs are spilled (default
+     *       {@code data});</li>
+     *   <li>{@code --parallel-transform} transforms on a pool of worker threads,
+     *       keeping the input order; default mode only;</li>
+     *   <li>{@code --min-chunk=N} smallest number of rows a transform worker
+     *       takes at a time (default 8192); smaller inputs are transformed on
+     *       one thread;</li>
+     *   <li>{@code --pipelined} runs extract, transform and load concurrently on
+     *       separate threads joined by bounded queues;</li>
+     *   <li>{@code --batch-size=N} rows handed between pipelined stages at a
+     *       time (default 1024);</li>
+     *   <li>{@code --queue-depth=N} batches each pipeline queue holds before
+     *       the stage feeding it waits (default 8).</li>
+     * </ul>
+     */
+    static class Options {
+        String inputFile = INPUT_FILE;
+        String outputFile = OUTPUT_FILE;
+        boolean streaming;
+        boolean fixedPoint;
+        boolean incremental;
+        boolean columnar;
+        String deadLetterFile;
+        String metricsFile;
+        long maxRejects = Long.MAX_VALUE;
+        double maxRejectRate = 1.0;
+        String rulesFile;
+        String batchSource;
+        String outputDir = "data";
+        String mergeFile;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean parallelTransform;
+        boolean dedupe;
+        String aggregatesFile;
+        String sortOrder;
+        long sortMemoryMb = ExternalSorter.DEFAULT_MEMORY_BUDGET >> 20;
+        String sortTempDir = "data";
+        int minChunk = ParallelTransform.DEFAULT_MIN_CHUNK;
+        boolean pipelined;
+        int batchSize = StagePipeline.DEFAULT_BATCH_SIZE;
+        int queueDepth = StagePipeline.DEFAULT_QUEUE_DEPTH;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (arg.startsWith("--input=")) {
+                    options.inputFile = arg.substring("--input=".length());
+                } else if (arg.startsWith("--output=")) {
+                    options.outputFile = arg.substring("--output=".length());
+                } else if (arg.equals("--streaming")) {
+                    options.streaming = true;
+                } else if (arg.equals("--fixed-point")) {
+                    options.fixedPoint = true;
+                } else if (arg.equals("--columnar")) {
+                    options.columnar = true;
+                } else if (arg.equals("--lenient")) {
+                    options.deadLetterFile = DEAD_LETTER_FILE;
+                } else if (arg.startsWith("--lenient=")) {
+                    options.deadLetterFile = arg.substring("--lenient=".length());
+                } else if (arg.startsWith("--max-rejects=")) {
+                    options.maxRejects = Long.parseLong(arg.substring("--max-rejects=".length()));
+                } else if (arg.startsWith("--max-reject-rate=")) {
+                    options.maxRejectRate = Double.parseDouble(arg.substring("--max-reject-rate=".length()));
+                } else if (arg.equals("--metrics")) {
+                    options.metricsFile = METRICS_FILE;
+                } else if (arg.startsWith("--metrics=")) {
+                    options.metricsFile = arg.substring("--metrics=".length());
+                } else if (arg.equals("--incremental")) {
+                    options.incremental = true;
+                } else if (arg.startsWith("--rules=")) {
+                    options.rulesFile = arg.substring("--rules=".length());
+                } else if (arg.startsWith("--batch=")) {
+                    options.batchSource = arg.substring("--batch=".length());
+                } else if (arg.startsWith("--out-dir=")) {
+                    options.outputDir = arg.substring("--out-dir=".length());
+                } else if (arg.startsWith("--merge=")) {
+                    options.mergeFile = arg.substring("--merge=".length());
+                } else if (arg.startsWith("--threads=")) {
+                    options.threads = positiveInt(arg, "--threads=");
+                } else if (arg.startsWith("--sort=")) {
+                    options.sortOrder = arg.substring("--sort=".length());
+                    ExternalSorter.order(options.sortOrder);
+                } else if (arg.startsWith("--sort-memory=")) {
+                    options.sortMemoryMb = positiveInt(arg, "--sort-memory=");
+                } else if (arg.startsWith("--sort-temp=")) {
+                    options.sortTempDir = arg.substring("--sort-temp=".length());
+                } else if (arg.equals("--dedupe")) {
+                    options.dedupe = true;
+                } else if (arg.equals("--aggregates")) {
+                    options.aggregatesFile = AGGREGATES_FILE;
+                } else if (arg.startsWith("--aggregates=")) {
+                    options.aggregatesFile = arg.substring("--aggregates=".length());
+                } else if (arg.equals("--parallel-transform")) {
+                    options.parallelTransform = true;
+                } else if (arg.startsWith("--min-chunk=")) {
+                    options.minChunk = positiveInt(arg, "--min-chunk=");
+                } else if (arg.equals("--pipelined")) {
+                    options.pipelined = true;
+                } else if (arg.startsWith("--batch-size=")) {
+                    options.batchSize = positiveInt(arg, "--batch-size=");
+                } else if (arg.startsWith("--queue-depth=")) {
+                    options.queueDepth = positiveInt(arg, "--queue-depth=");
+                } else {
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (options.incremental && (CompressedFiles.isCompressed(Paths.get(options.inputFile))
+                    || CompressedFiles.isCompressed(Paths.get(options.outputFile)))) {
+                // resuming needs byte offsets into the uncompressed files
+                throw new IllegalArgumentException("--incremental does not support compressed files");
+            }
+            if (options.batchSource != null
+                    && (!options.inputFile.equals(INPUT_FILE) || !options.outputFile.equals(OUTPUT_FILE))) {
+                throw new IllegalArgumentException("--batch takes its files from --batch, --out-dir and --merge,"
+                    + " not --input or --output");
+            }
+            if (options.incremental && options.batchSource != null) {
+                throw new IllegalArgumentException("--incremental cannot be combined with --batch");
+            }
+            if (options.deadLetterFile != null && (options.incremental || options.batchSource != null)) {
+                // both read files in pieces, so line numbers would not match the input
+                throw new IllegalArgumentException("--lenient cannot be combined with --incremental or --batch");
+            }
+            if (options.metricsFile != null && !options.pipelined
+                    && (options.streaming || options.incremental || options.batchSource != null)) {
+                // the other modes interleave the stages on one thread row by row
+                throw new IllegalArgumentException("--metrics is only supported in the default and --pipelined modes");
+            }
+            if (options.parallelTransform
+                    && (options.streaming || options.incremental || options.batchSource != null || options.pipelined)) {
+                throw new IllegalArgumentException("--parallel-transform is only supported in the default mode");
+            }
+            if (options.dedupe
+                    && (options.streaming || options.incremental || options.batchSource != null || options.pipelined)) {
+                // the last row of an ID is only known once every row has been read
+                throw new IllegalArgumentException("--dedupe is only supported in the default mode");
+            }
+            if (options.sortOrder != null && (options.streaming || options.incremental || options.batchSource != null
+                    || options.pipelined || options.dedupe || options.parallelTransform || options.metricsFile != null)) {
+                throw new IllegalArgumentException("--sort cannot be combined with --streaming, --incremental, --batch,"
+                    + " --pipelined, --dedupe, --parallel-transform or --metrics");
+            }
+            if (options.aggregatesFile != null && (options.incremental || options.batchSource != null)) {
+                // both would only see part of the output
+                throw new IllegalArgumentException("--aggregates cannot be combined with --incremental or --batch");
+            }
+            if (options.columnar && (options.incremental || options.batchSource != null || options.pipelined)) {
+                throw new IllegalArgumentException("--columnar is only supported in the default and --streaming modes");
+            }
+            return options;
+        }
+
+        private static int positiveInt(String arg, String prefix) {
+            int value = Integer.parseInt(arg.substring(prefix.length()));
+            if (value < 1) {
+                throw new IllegalArgumentException(prefix.substring(0, prefix.length() - 1) + " must be at least 1");
+            }
+            return value;
         }
     }
 
@@ -60,33 +556,135 @@ public class OOETL {
      */
     static class CSVExtractor {
         private final String filePath;
+        private final DeadLetterFile deadLetters;
+        // Interns categories as they are read, so every product with the
+        // same category shares one String.
+        private final ValueDictionary categories = new ValueDictionary();
         private String header;
 
         public CSVExtractor(String filePath) {
+            this(filePath, null);
+        }
+
+        /**
+         * @param filePath    the input file
+         * @param deadLetters receives rows that fail to parse so extraction can
+         *                    carry on without them, or null to fail on the first one
+         */
+        public CSVExtractor(String filePath, DeadLetterFile deadLetters) {
             this.filePath = filePath;
+            this.deadLetters = deadLetters;
+        }
+
+        /**
+         * @return the input file
+         */
+        String filePath() {
+            return filePath;
         }
 
         public List<Product> extract() throws IOException {
             List<Product> products = new ArrayList<>();
-            try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-                header = reader.readLine();
-                if (header == null) {
+            extract(products::add);
+            return products;
+        }
+
+        /**
+         * Reads the file row by row, handing each parsed product to the sink
+         * as soon as it is read. Nothing is retained between rows.
+         *
+         * @param sink receives every product in file order
+         * @return the number of rows read
+         */
+        public long extract(Consumer<Product> sink) throws IOException {
+            Path path = Paths.get(filePath);
+            try (Reader reader = CompressedFiles.isCompressed(path)
+                    ? new InputStreamReader(CompressedFiles.openInput(path), StandardCharsets.UTF_8)
+                    : new FileReader(filePath, StandardCharsets.UTF_8)) {
+                return extract(new CsvTokenizer(reader), true, sink);
+            }
+        }
+
+        /**
+         * Reads only the bytes in {@code [start, end)} of the file, which must
+         * begin and end on row boundaries. The header is expected only when
+         * {@code start} is 0; a range further in holds data rows only.
+         * Bytes are decoded as UTF-8, like {@link #extract(Consumer)}.
+         *
+         * @param start offset of the first byte to read
+         * @param end   offset just past the last byte to read
+         * @param sink  receives every product in file order
+         * @return the number of rows read
+         */
+        public long extractRange(long start, long end, Consumer<Product> sink) throws IOException {
+            try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+                channel.position(start);
+                InputStream in = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16) {
+                    private long remaining = end - start;
+
+                    @Override
+                    public synchronized int read() throws IOException {
+                        if (remaining <= 0) {
+                            return -1;
+                        }
+                        int b = super.read();
+                        if (b >= 0) {
+                            remaining--;
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public synchronized int read(byte[] b, int off, int len) throws IOException {
+                        if (remaining <= 0) {
+                            return -1;
+                        }
+                        int n = super.read(b, off, (int) Math.min(len, remaining));
+                        if (n > 0) {
+                            remaining -= n;
+                        }
+                        return n;
+                    }
+                };
+                Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+                return extract(new CsvTokenizer(reader), start == 0, sink);
+            }
+        }
+
+        private long extract(CsvTokenizer tokenizer, boolean readHeader, Consumer<Product> sink)
+                throws IOException {
+            if (readHeader) {
+                if (!tokenizer.next()) {
                     throw new IOException("CSV file is empty or header is missing.");
                 }
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.trim().isEmpty()) continue;
-                    String[] fields = line.split(",");
-                    products.add(new Product(
-                        Integer.parseInt(fields[0]),
-                        fields[1],
-                        new BigDecimal(fields[2]),
-                        fields[3],
+                header = tokenizer.record();
+            }
+            long rows = 0;
+            long seen = 0;
+            while (tokenizer.next()) {
+                if (tokenizer.isBlankLine()) continue;
+                seen++;
+                Product product;
+                try {
+                    product = new Product(
+                        tokenizer.parseInt(0),
+                        tokenizer.field(1),
+                        tokenizer.parseDecimal(2),
+                        tokenizer.field(3, categories),
                         null
-                    ));
+                    );
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    if (deadLetters == null) {
+                        throw e;
+                    }
+                    deadLetters.reject(tokenizer.lineNumber(), DeadLetterFile.reasonFor(tokenizer, 4, e),
+                        tokenizer.record(), seen);
+                    continue;
                 }
+                sink.accept(product);
+                rows++;
             }
-            return products;
+            return rows;
         }
 
         public String getHeader() {
@@ -98,33 +696,127 @@ public class OOETL {
      * Handles the "Transform" phase of the ETL pipeline.
      */
     static class ProductTransformer {
+        private static final BigDecimal ELECTRONICS_DISCOUNT = new BigDecimal("0.90");
+        private static final BigDecimal LOW_LIMIT = new BigDecimal("10.00");
+        private static final BigDecimal MEDIUM_LIMIT = new BigDecimal("100.00");
+        private static final BigDecimal HIGH_LIMIT = new BigDecimal("500.00");
+
+        private static final long DISCOUNT_UNSCALED = FixedPoint.unscaled(ELECTRONICS_DISCOUNT);
+        private static final int DISCOUNT_SCALE = ELECTRONICS_DISCOUNT.scale();
+        private static final long LOW_LIMIT_CENTS = FixedPoint.toCents(LOW_LIMIT);
+        private static final long MEDIUM_LIMIT_CENTS = FixedPoint.toCents(MEDIUM_LIMIT);
+        private static final long HIGH_LIMIT_CENTS = FixedPoint.toCents(HIGH_LIMIT);
+
+        private final boolean fixedPoint;
+        private final RuleEngine rules;
+
+        public ProductTransformer() {
+            this(false);
+        }
+
+        /**
+         * @param fixedPoint if true, prices are discounted and bucketed as
+         *                   {@code long} cents, using BigDecimal only for rows
+         *                   whose price does not fit (more than two decimal
+         *                   places or too large). Results are identical either way.
+         */
+        public ProductTransformer(boolean fixedPoint) {
+            this(fixedPoint, null);
+        }
+
+        /**
+         * @param fixedPoint see {@link #ProductTransformer(boolean)}
+         * @param rules      rules loaded from a config file to use instead of the
+         *                   built-in ones, or null for the built-in rules
+         */
+        public ProductTransformer(boolean fixedPoint, RuleEngine rules) {
+            this.fixedPoint = fixedPoint;
+            this.rules = rules;
+        }
+
+        /**
+         * Describes the settings that decide what a row is transformed into,
+         * so an incremental run can tell whether the rows it already loaded
+         * were produced the same way.
+         *
+         * @return the built-in rules or the rule file's checksum, plus the price mode
+         */
+        String settings() {
+            String source = rules == null ? "built-in rules" : "rules crc " + Long.toHexString(rules.sourceCrc());
+            return source + (fixedPoint ? ", fixed-point" : ", decimal");
+        }
+
         public List<Product> transform(List<Product> products) {
             return products.stream()
                 .map(this::applyTransformations)
                 .collect(Collectors.toList());
         }
 
-        private Product applyTransformations(Product product) {
-            Product currentProduct = product.withName(product.name().toUpperCase());
-            String originalCategory = product.category();
+        Product applyTransformations(Product product) {
+            if (rules != null) {
+                return rules.apply(product);
+            }
+            if (fixedPoint) {
+                Product result = applyFixedPointTransformations(product);
+                if (result != null) {
+                    return result;
+                }
+            }
+            // Derive every field first so each row allocates a single output record.
+            BigDecimal price = product.price();
+            String category = product.category();
 
-            if (originalCategory.equalsIgnoreCase("Electronics")) {
-                BigDecimal discountedPrice = currentProduct.price()
-                    .multiply(new BigDecimal("0.90"))
-                    .setScale(2, RoundingMode.HALF_UP);
-                currentProduct = currentProduct.withPrice(discountedPrice);
+            if (category.equalsIgnoreCase("Electronics")) {
+                price = price.multiply(ELECTRONICS_DISCOUNT).setScale(2, RoundingMode.HALF_UP);
 
-                if (currentProduct.price().compareTo(new BigDecimal("500.00")) > 0) {
-                    currentProduct = currentProduct.withCategory("Premium Electronics");
+                if (price.compareTo(HIGH_LIMIT) > 0) {
+                    category = "Premium Electronics";
                 }
             }
-            return currentProduct.withPriceRange(calculatePriceRange(currentProduct.price()));
+            return new Product(product.productId(), product.name().toUpperCase(), price, category,
+                calculatePriceRange(price));
         }
 
-        private String calculatePriceRange(BigDecimal price) {
-            if (price.compareTo(new BigDecimal("10.00")) <= 0) return "Low";
-            if (price.compareTo(new BigDecimal("100.00")) <= 0) return "Medium";
-            if (price.compareTo(new BigDecimal("500.00")) <= 0) return "High";
+        /**
+         * Same rules as {@link #applyTransformations}, computed on cents.
+         *
+         * @return the transformed product, or null if the price cannot be
+         *         handled exactly in cents and BigDecimal must be used instead
+         */
+        private Product applyFixedPointTransformations(Product product) {
+            long cents = FixedPoint.toCents(product.price());
+            if (cents == FixedPoint.OVERFLOW) {
+                return null;
+            }
+            BigDecimal price = product.price();
+            String category = product.category();
+
+            if (category.equalsIgnoreCase("Electronics")) {
+                cents = FixedPoint.multiplyHalfUp(cents, DISCOUNT_UNSCALED, DISCOUNT_SCALE);
+                if (cents == FixedPoint.OVERFLOW) {
+                    return null;
+                }
+                price = BigDecimal.valueOf(cents, 2);
+
+                if (cents > HIGH_LIMIT_CENTS) {
+                    category = "Premium Electronics";
+                }
+            }
+            return new Product(product.productId(), product.name().toUpperCase(), price, category,
+                calculatePriceRange(cents));
+        }
+
+        String calculatePriceRange(BigDecimal price) {
+            if (price.compareTo(LOW_LIMIT) <= 0) return "Low";
+            if (price.compareTo(MEDIUM_LIMIT) <= 0) return "Medium";
+            if (price.compareTo(HIGH_LIMIT) <= 0) return "High";
+            return "Premium";
+        }
+
+        private String calculatePriceRange(long cents) {
+            if (cents <= LOW_LIMIT_CENTS) return "Low";
+            if (cents <= MEDIUM_LIMIT_CENTS) return "Medium";
+            if (cents <= HIGH_LIMIT_CENTS) return "High";
             return "Premium";
         }
     }
@@ -134,98 +826,172 @@ public class OOETL {
      */
     static class CSVLoader {
         private final String filePath;
+        private final boolean writeHeader;
+        private final PriceAggregates aggregates;
 
         public CSVLoader(String filePath) {
+            this(filePath, true);
+        }
+
+        /**
+         * @param filePath    the output file
+         * @param writeHeader false to write data rows only, for output that is
+         *                    later appended to a file that already has a header
+         */
+        public CSVLoader(String filePath, boolean writeHeader) {
+            this(filePath, writeHeader, null);
+        }
+
+        /**
+         * @param filePath    the output file
+         * @param writeHeader see {@link #CSVLoader(String, boolean)}
+         * @param aggregates  receives every row written, or null
+         */
+        public CSVLoader(String filePath, boolean writeHeader, PriceAggregates aggregates) {
             this.filePath = filePath;
+            this.writeHeader = writeHeader;
+            this.aggregates = aggregates;
+        }
+
+        /**
+         * @return the output file
+         */
+        String filePath() {
+            return filePath;
         }
 
         public void load(List<Product> products, String header) throws IOException {
+            try (RowWriter writer = open(() -> header)) {
+                for (Product p : products) {
+                    writer.write(p);
+                }
+                writer.commit();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Opens the output file for row-at-a-time writing. The header is
+         * requested lazily, right before the first row (or on close when no
+         * rows were written), because a streaming extractor only knows it once
+         * reading has started.
+         *
+         * Rows go to a temporary file next to the output, which replaces the
+         * output on close only after {@link RowWriter#commit()}, so a failed
+         * run leaves the previous output untouched.
+         *
+         * @param header supplies the input header line
+         * @return a writer that must be committed and closed to produce the output
+         */
+        public RowWriter open(Supplier<String> header) throws IOException {
             File outputFile = new File(filePath);
             File parentDir = outputFile.getParentFile();
             if (parentDir != null && !parentDir.exists()) {
                 parentDir.mkdirs();
             }
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile))) {
-                writer.write(header + ",PriceRange");
-                writer.newLine();
-                for (Product p : products) {
-                    writer.write(p.toCsvString());
-                    writer.newLine();
-                }
-            }
+            Path target = outputFile.toPath();
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            RowWriter writer = new RowWriter(CompressedFiles.openWriter(temp, CompressedFiles.isCompressed(target)),
+                header, aggregates);
+            writer.temp = temp;
+            writer.target = target;
+            writer.headerWritten = !writeHeader;
+            return writer;
         }
-    }
-}
 
-/**
- * Represents a single, immutable product record.
- * This record encapsulates all data fields for a product, both original and transformed.
- *
- * @param productId  The unique identifier for the product.
- * @param name       The name of the product.
- * @param price      The price of the product.
- * @param category   The category of the product.
- * @param priceRange The calculated price range (e.g., "Low", "Medium").
- */
-record Product(
-    int productId,
-    String name,
-    BigDecimal price,
-    String category,
-    String priceRange
-) {
-    /**
-     * Creates a new Product instance with a modified price.
-     *
-     * @param newPrice The new price to set.
-     * @return A new Product object with the updated price.
-     */
-    public Product withPrice(BigDecimal newPrice) {
-        return new Product(this.productId, this.name, newPrice, this.category, this.priceRange);
-    }
+        /**
+         * Opens the existing output file for adding rows at its end. No
+         * header is written; the file is expected to have one already.
+         * Rows are written in place, so a failed run leaves a partial tail
+         * for the next full rebuild to replace.
+         *
+         * @return a writer that must be closed to flush the output
+         */
+        public RowWriter append() throws IOException {
+            RowWriter writer = new RowWriter(CsvByteWriter.append(Paths.get(filePath)), () -> null, aggregates);
+            writer.headerWritten = true;
+            return writer;
+        }
 
-    /**
-     * Creates a new Product instance with a modified category.
-     *
-     * @param newCategory The new category to set.
-     * @return A new Product object with the updated category.
-     */
-    public Product withCategory(String newCategory) {
-        return new Product(this.productId, this.name, this.price, newCategory, this.priceRange);
-    }
+        /**
+         * Writes transformed products to the output one at a time. Rows are
+         * encoded as UTF-8 directly into a reusable byte buffer that is
+         * written to the file in large blocks.
+         */
+        static class RowWriter implements Closeable {
+            private final CsvByteWriter writer;
+            private final Supplier<String> header;
+            private final PriceAggregates aggregates;
+            private boolean headerWritten;
+            private boolean committed;
+            // Set when rows go to 'temp' and replace 'target' on commit.
+            private Path temp;
+            private Path target;
 
-    /**
-     * Creates a new Product instance with a modified name.
-     *
-     * @param newName The new name to set.
-     * @return A new Product object with the updated name.
-     */
-    public Product withName(String newName) {
-        return new Product(this.productId, newName, this.price, this.category, this.priceRange);
-    }
+            RowWriter(CsvByteWriter writer, Supplier<String> header, PriceAggregates aggregates) {
+                this.writer = writer;
+                this.header = header;
+                this.aggregates = aggregates;
+            }
 
-    /**
-     * Creates a new Product instance with the priceRange field populated.
-     *
-     * @param newPriceRange The calculated price range.
-     * @return A new Product object with the price range.
-     */
-    public Product withPriceRange(String newPriceRange) {
-        return new Product(this.productId, this.name, this.price, this.category, newPriceRange);
-    }
+            public void write(Product p) {
+                try {
+                    writeHeaderIfNeeded();
+                    p.writeCsv(writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (aggregates != null) {
+                    aggregates.add(p.category(), p.priceRange(), p.price());
+                }
+            }
 
-    /**
-     * Formats the Product record into a CSV-compatible string.
-     *
-     * @return A comma-separated string representing the product's data.
-     */
-    public String toCsvString() {
-        return String.join(",",
-            String.valueOf(productId),
-            name,
-            price.toPlainString(),
-            category,
-            priceRange
-        );
+            /**
+             * @return bytes written to the output so far
+             */
+            public long bytesWritten() {
+                return writer.bytesWritten();
+            }
+
+            private void writeHeaderIfNeeded() throws IOException {
+                if (!headerWritten) {
+                    writer.writeRaw(header.get() + ",PriceRange");
+                    writer.endRow();
+                    headerWritten = true;
+                }
+            }
+
+            /**
+             * Marks the output complete, so {@link #close()} moves it into place.
+             */
+            public void commit() {
+                committed = true;
+            }
+
+            /**
+             * Flushes the output. A committed file replaces the output; an
+             * uncommitted one is deleted and the previous output is kept.
+             */
+            @Override
+            public void close() throws IOException {
+                try {
+                    try {
+                        if (committed && header.get() != null) {
+                            writeHeaderIfNeeded();
+                        }
+                    } finally {
+                        writer.close();
+                    }
+                    if (committed && temp != null) {
+                        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                } finally {
+                    if (temp != null) {
+                        Files.deleteIfExists(temp);
+                    }
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,111 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import org.howard.edu.lsp.assignment2.EtlMetrics;
+
+/**
+ * Transforms a list of products on a dedicated {@link ForkJoinPool} instead
+ * of the shared common pool.
+ *
+ * The input is split in halves until a piece is no larger than its target
+ * chunk, which is the row count divided into a few pieces per worker but
+ * never under {@code minChunk} rows, so per-task overhead stays small
+ * next to the work. Each row is written to its own slot of the result, so
+ * the output order is the input order, as with
+ * {@link OOETL.ProductTransformer#transform}. Lists shorter than two chunks
+ * are transformed sequentially on the calling thread.
+ */
+class ParallelTransform {
+
+    /** Default smallest number of rows handed to one task. */
+    static final int DEFAULT_MIN_CHUNK = 8192;
+
+    // pieces per worker, so a worker that finishes early can steal the rest
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final int minChunk;
+
+    /**
+     * @param threads  number of worker threads
+     * @param minChunk smallest number of rows handed to one task
+     */
+    ParallelTransform(int threads, int minChunk) {
+        this.pool = new ForkJoinPool(threads);
+        this.minChunk = minChunk;
+    }
+
+    /**
+     * @param transformer applied to every row; it must be stateless
+     * @param products    rows to transform
+     * @param metrics     receives the CPU time and allocation of the workers
+     * @return the transformed rows in input order, as a fixed-size list
+     */
+    List<Product> transform(OOETL.ProductTransformer transformer, List<Product> products, EtlMetrics metrics) {
+        int rows = products.size();
+        int chunk = Math.max(minChunk, rows / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        if (rows < 2 * chunk || pool.getParallelism() == 1) {
+            return transformer.transform(products);
+        }
+        Product[] in = products.toArray(new Product[0]);
+        Product[] out = new Product[rows];
+        pool.invoke(new Chunk(transformer, in, out, 0, rows, chunk, metrics));
+        return Arrays.asList(out);
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private static final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final OOETL.ProductTransformer transformer;
+        private final Product[] in;
+        private final Product[] out;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final EtlMetrics metrics;
+
+        Chunk(OOETL.ProductTransformer transformer, Product[] in, Product[] out, int from, int to, int chunk,
+                EtlMetrics metrics) {
+            this.transformer = transformer;
+            this.in = in;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > chunk) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Chunk(transformer, in, out, from, mid, chunk, metrics),
+                    new Chunk(transformer, in, out, mid, to, chunk, metrics));
+                return;
+            }
+            // the calling thread may run chunks too; its usage is already timed by the stage
+            boolean worker = Thread.currentThread() instanceof ForkJoinWorkerThread;
+            EtlMetrics.StageTimer timer = worker ? metrics.startHelper(EtlMetrics.Stage.TRANSFORM) : null;
+            try {
+                for (int i = from; i < to; i++) {
+                    out[i] = transformer.applyTransformations(in[i]);
+                }
+            } finally {
+                if (timer != null) {
+                    timer.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import org.howard.edu.lsp.assignment2.CsvByteWriter;
+import org.howard.edu.lsp.assignment2.CsvTokenizer;
+
+/**
+ * Represents a single, immutable product record.
+ * This record encapsulates all data fields for a product, both original and transformed.
+ *
+ * @param productId  The unique identifier for the product.
+ * @param name       The name of the product.
+ * @param price      The price of the product.
+ * @param category   The category of the product.
+ * @param priceRange The calculated price range (e.g., "Low", "Medium").
+ */
+record Product(
+    int productId,
+    String name,
+    BigDecimal price,
+    String category,
+    String priceRange
+) {
+    /**
+     * Creates a new Product instance with a modified price.
+     *
+     * @param newPrice The new price to set.
+     * @return A new Product object with the updated price.
+     */
+    public Product withPrice(BigDecimal newPrice) {
+        return new Product(this.productId, this.name, newPrice, this.category, this.priceRange);
+    }
+
+    /**
+     * Creates a new Product instance with a modified category.
+     *
+     * @param newCategory The new category to set.
+     * @return A new Product object with the updated category.
+     */
+    public Product withCategory(String newCategory) {
+        return new Product(this.productId, this.name, this.price, newCategory, this.priceRange);
+    }
+
+    /**
+     * Creates a new Product instance with a modified name.
+     *
+     * @param newName The new name to set.
+     * @return A new Product object with the updated name.
+     */
+    public Product withName(String newName) {
+        return new Product(this.productId, newName, this.price, this.category, this.priceRange);
+    }
+
+    /**
+     * Creates a new Product instance with the priceRange field populated.
+     *
+     * @param newPriceRange The calculated price range.
+     * @return A new Product object with the price range.
+     */
+    public Product withPriceRange(String newPriceRange) {
+        return new Product(this.productId, this.name, this.price, this.category, newPriceRange);
+    }
+
+    /**
+     * Formats the Product record into a CSV-compatible string.
+     *
+     * @return A comma-separated string representing the product's data.
+     */
+    public String toCsvString() {
+        return String.join(",",
+            String.valueOf(productId),
+            CsvTokenizer.quoteIfNeeded(name),
+            price.toPlainString(),
+            CsvTokenizer.quoteIfNeeded(category),
+            priceRange
+        );
+    }
+
+    /**
+     * Writes the product as one CSV row straight into the writer's byte buffer,
+     * producing the same text as {@link #toCsvString()} without building it.
+     *
+     * @param out The writer to append the row to.
+     * @throws IOException If the writer fails to flush.
+     */
+    public void writeCsv(CsvByteWriter out) throws IOException {
+        out.writeInt(productId);
+        out.comma();
+        out.writeText(name);
+        out.comma();
+        out.writeDecimal(price);
+        out.comma();
+        out.writeText(category);
+        out.comma();
+        out.writeRaw(priceRange);
+        out.endRow();
+    }
+}
@@ -0,0 +1,437 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Applies product transformation rules loaded from a config file instead of
+ * the hard-coded chains in {@link OOETL.ProductTransformer} and
+ * {@code ETLPipeline.transformProduct}.
+ *
+ * The file is read once and compiled into flat arrays: a case-insensitive
+ * open-addressing table from category to rule index, the rule parameters in
+ * parallel arrays, and the price-range upper bounds as sorted cents. Applying
+ * the rules to a row is one table probe plus a loop over the bounds, no matter
+ * how many category rules are defined.
+ *
+ * Config format, one rule per line ('#' starts a comment, names with spaces
+ * are double-quoted):
+ * <pre>
+ * category Electronics multiply 0.90 above 500.00 recategorize "Premium Electronics"
+ * range Low 10.00
+ * range Medium 100.00
+ * range High 500.00
+ * range Premium
+ * </pre>
+ * A category rule matches the row's original category ignoring case. It
+ * multiplies the price by the factor and rounds to cents HALF_UP, then renames
+ * the category if the new price is strictly above the optional threshold.
+ * Ranges are listed in ascending order; a price gets the first range whose
+ * upper bound it does not exceed, and the last range must have no bound.
+ */
+public final class RuleEngine {
+
+    /**
+     * Builds a transformed row from its fields.
+     *
+     * @param <T> the caller's product type
+     */
+    @FunctionalInterface
+    public interface Output<T> {
+        T create(int productId, String name, BigDecimal price, String category, String priceRange);
+    }
+
+    private static final int LOOKUP_CACHE_SIZE = 256;
+
+    private final String[] tableKeys;
+    private final int[] tableRules;
+    private final int tableMask;
+
+    private final long ruleLengths;
+    private final CachedLookup[] lookupCache = new CachedLookup[LOOKUP_CACHE_SIZE];
+
+    private final BigDecimal[] factors;
+    private final long[] factorUnscaled;
+    private final int[] factorScales;
+    private final BigDecimal[] recategorizeAbove;
+    private final long[] recategorizeAboveCents;
+    private final String[] recategorizeTo;
+
+    private final BigDecimal[] rangeBounds;
+    private final long[] rangeBoundCents;
+    private final String[] rangeLabels;
+
+    private final long sourceCrc;
+
+    private RuleEngine(List<CategoryRule> categories, List<RangeRule> ranges, long sourceCrc) {
+        this.sourceCrc = sourceCrc;
+        int n = categories.size();
+        factors = new BigDecimal[n];
+        factorUnscaled = new long[n];
+        factorScales = new int[n];
+        recategorizeAbove = new BigDecimal[n];
+        recategorizeAboveCents = new long[n];
+        recategorizeTo = new String[n];
+
+        int capacity = Integer.highestOneBit(Math.max(2, n * 2 - 1)) << 1;
+        tableKeys = new String[capacity];
+        tableRules = new int[capacity];
+        tableMask = capacity - 1;
+
+        long lengths = 0;
+        for (int i = 0; i < n; i++) {
+            CategoryRule rule = categories.get(i);
+            lengths |= 1L << Math.min(rule.category.length(), 63);
+            factors[i] = rule.factor;
+            factorUnscaled[i] = FixedPoint.unscaled(rule.factor);
+            factorScales[i] = rule.factor.scale();
+            recategorizeAbove[i] = rule.above;
+            recategorizeAboveCents[i] = rule.above == null ? Long.MAX_VALUE : FixedPoint.toCents(rule.above);
+            recategorizeTo[i] = rule.newCategory;
+
+            int slot = hash(rule.category) & tableMask;
+            while (tableKeys[slot] != null) {
+                slot = (slot + 1) & tableMask;
+            }
+            tableKeys[slot] = rule.category;
+            tableRules[slot] = i;
+        }
+        ruleLengths = lengths;
+
+        int bounded = ranges.size() - 1;
+        rangeBounds = new BigDecimal[bounded];
+        rangeBoundCents = new long[bounded];
+        rangeLabels = new String[ranges.size()];
+        for (int i = 0; i < ranges.size(); i++) {
+            rangeLabels[i] = ranges.get(i).label;
+            if (i < bounded) {
+                rangeBounds[i] = ranges.get(i).upperBound;
+                rangeBoundCents[i] = FixedPoint.toCents(ranges.get(i).upperBound);
+            }
+        }
+    }
+
+    /**
+     * Loads and compiles a rule file, read as UTF-8 like the CSV input so a
+     * category such as "Café" matches the same rows on every platform.
+     *
+     * @param path the config file
+     * @return the compiled rules
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a rule is malformed
+     */
+    public static RuleEngine load(String path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            return parse(reader, path);
+        }
+    }
+
+    /**
+     * Compiles rules from a reader.
+     *
+     * @param in     rule text
+     * @param source name used in error messages
+     * @return the compiled rules
+     */
+    static RuleEngine parse(Reader in, String source) throws IOException {
+        List<CategoryRule> categories = new ArrayList<>();
+        List<RangeRule> ranges = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(in);
+        CRC32 crc = new CRC32();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            crc.update(line.getBytes(StandardCharsets.UTF_8));
+            crc.update('\n');
+            List<String> words = split(line, source, lineNumber);
+            if (words.isEmpty()) {
+                continue;
+            }
+            try {
+                switch (words.get(0)) {
+                    case "category":
+                        categories.add(parseCategory(words, categories));
+                        break;
+                    case "range":
+                        ranges.add(parseRange(words, ranges));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown rule '" + words.get(0) + "'");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(source + " line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        if (ranges.isEmpty() || ranges.get(ranges.size() - 1).upperBound != null) {
+            throw new IllegalArgumentException(source + ": the last range must have no upper bound");
+        }
+        return new RuleEngine(categories, ranges, crc.getValue());
+    }
+
+    /**
+     * @return a CRC-32 of the rule text the rules were compiled from, with
+     *         every line ending counted as {@code \n}
+     */
+    long sourceCrc() {
+        return sourceCrc;
+    }
+
+    /**
+     * Transforms one product: upper-cases the name, applies the matching
+     * category rule, and assigns the price range of the resulting price.
+     * Prices are handled as cents when they have at most two decimal places,
+     * and as BigDecimal otherwise; both give the same result.
+     *
+     * @param product the extracted product
+     * @return a new product with every derived field set
+     */
+    Product apply(Product product) {
+        return apply(product.productId(), product.name(), product.price(), product.category(), Product::new);
+    }
+
+    /**
+     * Same as {@link #apply(Product)} for callers with their own product
+     * type, such as ETLPipeline; the output row is built once, by
+     * {@code output}.
+     *
+     * @param productId the row's ProductID
+     * @param name      the extracted name
+     * @param price     the extracted price
+     * @param category  the extracted category
+     * @param output    builds the transformed row
+     * @return the row built by {@code output} from the derived fields
+     */
+    public <T> T apply(int productId, String name, BigDecimal price, String category, Output<T> output) {
+        int rule = find(category);
+
+        long cents = FixedPoint.toCents(price);
+        if (cents != FixedPoint.OVERFLOW && rule >= 0) {
+            cents = FixedPoint.multiplyHalfUp(cents, factorUnscaled[rule], factorScales[rule]);
+        }
+        if (cents != FixedPoint.OVERFLOW) {
+            if (rule >= 0) {
+                price = BigDecimal.valueOf(cents, 2);
+                if (cents > recategorizeAboveCents[rule]) {
+                    category = recategorizeTo[rule];
+                }
+            }
+            return output.create(productId, name.toUpperCase(), price, category, rangeLabels[rangeIndex(cents)]);
+        }
+
+        if (rule >= 0) {
+            price = price.multiply(factors[rule]).setScale(2, RoundingMode.HALF_UP);
+            if (recategorizeAbove[rule] != null && price.compareTo(recategorizeAbove[rule]) > 0) {
+                category = recategorizeTo[rule];
+            }
+        }
+        return output.create(productId, name.toUpperCase(), price, category, rangeLabels[rangeIndex(price)]);
+    }
+
+    /**
+     * @return the number of category rules
+     */
+    int categoryRuleCount() {
+        return factors.length;
+    }
+
+    /**
+     * Finds the rule for a category. Categories whose length matches no rule
+     * are rejected at once, like equalsIgnoreCase does. Feeds only have a few
+     * dozen distinct categories, so other results are remembered by exact
+     * spelling in a small direct-mapped cache; a hit costs String.hashCode and
+     * equals, and the case-insensitive table is only probed for spellings not
+     * seen recently. Entries are immutable, so concurrent transformer threads
+     * can share the cache.
+     */
+    private int find(String category) {
+        if ((ruleLengths & (1L << Math.min(category.length(), 63))) == 0) {
+            return -1;
+        }
+        int h = category.hashCode();
+        int index = (h ^ (h >>> 16)) & (LOOKUP_CACHE_SIZE - 1);
+        CachedLookup cached = lookupCache[index];
+        if (cached != null && cached.category.equals(category)) {
+            return cached.rule;
+        }
+        int rule = probe(category);
+        lookupCache[index] = new CachedLookup(category, rule);
+        return rule;
+    }
+
+    private int probe(String category) {
+        for (int slot = hash(category) & tableMask; ; slot = (slot + 1) & tableMask) {
+            String key = tableKeys[slot];
+            if (key == null) {
+                return -1;
+            }
+            if (key.equalsIgnoreCase(category)) {
+                return tableRules[slot];
+            }
+        }
+    }
+
+    /**
+     * Counts the bounds below the price instead of exiting early, which keeps
+     * the loop free of data-dependent branches for the usual handful of ranges.
+     */
+    private int rangeIndex(long cents) {
+        int index = 0;
+        for (long bound : rangeBoundCents) {
+            index += cents > bound ? 1 : 0;
+        }
+        return index;
+    }
+
+    private int rangeIndex(BigDecimal price) {
+        int index = 0;
+        for (BigDecimal bound : rangeBounds) {
+            index += price.compareTo(bound) > 0 ? 1 : 0;
+        }
+        return index;
+    }
+
+    /**
+     * Hash that agrees with {@link String#equalsIgnoreCase}. ASCII letters are
+     * folded arithmetically; only other characters go through Character.
+     */
+    private static int hash(String s) {
+        int h = s.length();
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            } else if (c >= 0x80) {
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            h = 31 * h + c;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static CategoryRule parseCategory(List<String> words, List<CategoryRule> existing) {
+        // category <name> multiply <factor> [above <price> recategorize <name>]
+        if ((words.size() != 4 && words.size() != 8) || !words.get(2).equals("multiply")
+                || (words.size() == 8 && (!words.get(4).equals("above") || !words.get(6).equals("recategorize")))) {
+            throw new IllegalArgumentException(
+                "expected: category <name> multiply <factor> [above <price> recategorize <name>]");
+        }
+        CategoryRule rule = new CategoryRule();
+        rule.category = words.get(1);
+        rule.factor = decimal(words.get(3));
+        if (rule.factor.scale() > 18 || rule.factor.precision() > 18) {
+            throw new IllegalArgumentException("factor " + words.get(3) + " has too many digits");
+        }
+        if (words.size() == 8) {
+            rule.above = cents(words.get(5));
+            rule.newCategory = words.get(7);
+        }
+        for (CategoryRule other : existing) {
+            if (other.category.equalsIgnoreCase(rule.category)) {
+                throw new IllegalArgumentException("duplicate rule for category " + rule.category);
+            }
+        }
+        return rule;
+    }
+
+    private static RangeRule parseRange(List<String> words, List<RangeRule> existing) {
+        // range <label> [<upper bound>]
+        if (words.size() != 2 && words.size() != 3) {
+            throw new IllegalArgumentException("expected: range <label> [<upper bound>]");
+        }
+        RangeRule rule = new RangeRule();
+        rule.label = words.get(1);
+        rule.upperBound = words.size() == 3 ? cents(words.get(2)) : null;
+        if (!existing.isEmpty()) {
+            BigDecimal previous = existing.get(existing.size() - 1).upperBound;
+            if (previous == null) {
+                throw new IllegalArgumentException("no range may follow the unbounded range");
+            }
+            if (rule.upperBound != null && rule.upperBound.compareTo(previous) <= 0) {
+                throw new IllegalArgumentException("range bounds must be ascending");
+            }
+        }
+        return rule;
+    }
+
+    private static BigDecimal decimal(String text) {
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("not a number: " + text);
+        }
+    }
+
+    /**
+     * Parses a price threshold, which must be exact in cents.
+     */
+    private static BigDecimal cents(String text) {
+        BigDecimal value = decimal(text);
+        if (FixedPoint.toCents(value) == FixedPoint.OVERFLOW) {
+            throw new IllegalArgumentException("price " + text + " must have at most two decimal places");
+        }
+        return value;
+    }
+
+    /**
+     * Splits a line into words, honouring double quotes and dropping comments.
+     */
+    private static List<String> split(String line, String source, int lineNumber) {
+        List<String> words = new ArrayList<>();
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c == '#') {
+                break;
+            }
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int close = line.indexOf('"', i + 1);
+                if (close < 0) {
+                    throw new IllegalArgumentException(source + " line " + lineNumber + ": unterminated quote");
+                }
+                words.add(line.substring(i + 1, close));
+                i = close + 1;
+            } else {
+                int start = i;
+                while (i < line.length() && !Character.isWhitespace(line.charAt(i)) && line.charAt(i) != '#') {
+                    i++;
+                }
+                words.add(line.substring(start, i));
+            }
+        }
+        return words;
+    }
+
+    private static final class CachedLookup {
+        final String category;
+        final int rule;
+
+        CachedLookup(String category, int rule) {
+            this.category = category;
+            this.rule = rule;
+        }
+    }
+
+    private static class CategoryRule {
+        String category;
+        BigDecimal factor;
+        BigDecimal above;
+        String newCategory;
+    }
+
+    private static class RangeRule {
+        String label;
+        BigDecimal upperBound;
+    }
+}
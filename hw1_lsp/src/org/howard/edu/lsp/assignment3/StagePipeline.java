@@ -0,0 +1,237 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.howard.edu.lsp.assignment2.EtlMetrics;
+
+/**
+ * Runs the extract, transform and load stages at the same time, each on its
+ * own thread, so reading the input, transforming rows and writing the output
+ * overlap instead of taking turns.
+ *
+ * Rows travel between stages in batches through two bounded queues. When a
+ * downstream stage falls behind its queue fills up and the stage feeding it
+ * blocks, so at most {@code 2 * queueDepth} batches (plus one per stage in
+ * hand) are in memory whatever the input size. Each stage is a single thread
+ * reading a FIFO queue, so rows reach the output in input order.
+ *
+ * If any stage fails the other two are interrupted and the first failure is
+ * rethrown from {@link #run}.
+ */
+final class StagePipeline {
+
+    /** Default number of rows handed between stages at a time. */
+    static final int DEFAULT_BATCH_SIZE = 1024;
+    /** Default number of batches each queue can hold. */
+    static final int DEFAULT_QUEUE_DEPTH = 8;
+
+    /** Marks the end of the stream; compared by identity. */
+    private static final List<Product> END = new ArrayList<>(0);
+
+    private final int batchSize;
+    private final int queueDepth;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private Thread loadThread;
+
+    private long rowsRead;
+    private long rowsTransformed;
+    private long rowsWritten;
+
+    /**
+     * @param batchSize  rows per batch, at least 1
+     * @param queueDepth batches each queue can hold before its producer
+     *                   blocks, at least 1
+     */
+    StagePipeline(int batchSize, int queueDepth) {
+        if (batchSize < 1 || queueDepth < 1) {
+            throw new IllegalArgumentException("Batch size and queue depth must be at least 1");
+        }
+        this.batchSize = batchSize;
+        this.queueDepth = queueDepth;
+    }
+
+    /**
+     * Runs the three stages to completion. Extract and transform run on new
+     * threads; load runs on the calling thread. Since each stage has a thread
+     * of its own, the timings in {@code metrics} are exact per stage.
+     */
+    void run(OOETL.CSVExtractor extractor, OOETL.ProductTransformer transformer, OOETL.CSVLoader loader,
+            EtlMetrics metrics) throws IOException {
+        loadThread = Thread.currentThread();
+        BlockingQueue<List<Product>> extracted = new ArrayBlockingQueue<>(queueDepth);
+        BlockingQueue<List<Product>> transformed = new ArrayBlockingQueue<>(queueDepth);
+
+        addStage("etl-extract", metrics, EtlMetrics.Stage.EXTRACT, () -> {
+            List<List<Product>> batch = new ArrayList<>(1);
+            batch.add(new ArrayList<>(batchSize));
+            rowsRead = extractor.extract(product -> {
+                List<Product> current = batch.get(0);
+                current.add(product);
+                if (current.size() == batchSize) {
+                    put(extracted, current);
+                    batch.set(0, new ArrayList<>(batchSize));
+                }
+            });
+            if (!batch.get(0).isEmpty()) {
+                put(extracted, batch.get(0));
+            }
+            put(extracted, END);
+        });
+
+        addStage("etl-transform", metrics, EtlMetrics.Stage.TRANSFORM, () -> {
+            for (List<Product> batch = take(extracted); batch != END; batch = take(extracted)) {
+                // Replace rows in place; the batch list itself is handed on.
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.set(i, transformer.applyTransformations(batch.get(i)));
+                }
+                rowsTransformed += batch.size();
+                put(transformed, batch);
+            }
+            put(transformed, END);
+        });
+        // Start only once every thread is registered, so fail() sees them all.
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        EtlMetrics.StageTimer loadTimer = metrics.start(EtlMetrics.Stage.LOAD);
+        try (OOETL.CSVLoader.RowWriter writer = loader.open(extractor::getHeader)) {
+            for (List<Product> batch = take(transformed); batch != END; batch = take(transformed)) {
+                for (Product p : batch) {
+                    writer.write(p);
+                }
+                rowsWritten += batch.size();
+            }
+            writer.commit();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        } finally {
+            loadTimer.close();
+            join();
+        }
+        rethrowFailure();
+    }
+
+    /**
+     * @return rows read by the extract stage
+     */
+    long rowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * @return rows passed through the transform stage
+     */
+    long rowsTransformed() {
+        return rowsTransformed;
+    }
+
+    /**
+     * @return rows written by the load stage
+     */
+    long rowsWritten() {
+        return rowsWritten;
+    }
+
+    private interface StageBody {
+        void run() throws IOException;
+    }
+
+    private void addStage(String name, EtlMetrics metrics, EtlMetrics.Stage stage, StageBody body) {
+        Thread thread = new Thread(() -> {
+            EtlMetrics.StageTimer timer = metrics.start(stage);
+            try {
+                body.run();
+            } catch (CancellationException e) {
+                // another stage failed and interrupted this one
+            } catch (IOException | RuntimeException | Error e) {
+                fail(e);
+            } finally {
+                timer.close();
+            }
+        }, name);
+        thread.setDaemon(true);
+        threads.add(thread);
+    }
+
+    /**
+     * Records the first failure and interrupts every stage thread, so stages
+     * blocked on a full or empty queue give up instead of waiting forever.
+     */
+    private void fail(Throwable e) {
+        if (!failure.compareAndSet(null, e)) {
+            return;
+        }
+        for (Thread thread : threads) {
+            if (thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+        if (loadThread != Thread.currentThread()) {
+            loadThread.interrupt();
+        }
+    }
+
+    private void join() {
+        if (failure.get() != null) {
+            // the interrupt, if any, came from fail(); don't leak it to the caller
+            Thread.interrupted();
+        }
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void rethrowFailure() throws IOException {
+        Throwable e = failure.get();
+        if (e == null) {
+            return;
+        }
+        if (e instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) e).getCause();
+        }
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        }
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        throw (Error) e;
+    }
+
+    private void put(BlockingQueue<List<Product>> queue, List<Product> batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Pipeline stage interrupted");
+        }
+    }
+
+    private List<Product> take(BlockingQueue<List<Product>> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Pipeline stage interrupted");
+        }
+    }
+}
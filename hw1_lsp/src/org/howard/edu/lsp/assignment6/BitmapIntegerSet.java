@@ -0,0 +1,795 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.Arrays;
+
+/**
+ * A set of integers with the same operations as {@link IntegerSet}, stored
+ * as a compressed bitmap instead of a hash table. Dense ranges of values take
+ * about one bit each, elements are kept in ascending order, and set algebra
+ * works on whole machine words.
+ *
+ * Values are split into 65536 chunks by their upper 16 bits, in the manner
+ * of Roaring bitmaps. Each chunk that holds values has a container for the
+ * lower 16 bits: a sorted array while the chunk is sparse (up to 4096
+ * values) and a 65536-bit bitmap once it is dense. Chunks are kept in key
+ * order, so a lookup is a binary search over at most 65536 keys followed by
+ * a binary search or a single bit test inside the container.
+ *
+ * {@link #union}, {@link #intersect}, {@link #diff} and {@link #complement}
+ * walk the two sorted chunk lists together and combine matching chunks a
+ * whole container at a time: bitmaps with OR, AND and AND-NOT over 64-bit
+ * words, arrays with a linear merge. Their cost depends on the number of
+ * chunks and words, not on testing each element separately.
+ *
+ * Unlike {@link IntegerSet}, which lists elements in insertion order,
+ * {@link #toString()} lists them in ascending order.
+ */
+public class BitmapIntegerSet {
+    private static final int INITIAL_CHUNKS = 4;
+
+    // Chunk keys in ascending order and their containers; the first 'size' entries are used.
+    private char[] keys = new char[INITIAL_CHUNKS];
+    private Container[] containers = new Container[INITIAL_CHUNKS];
+    private int size;
+    private int length;
+
+    /**
+     * Clears the internal representation of the set, removing all elements.
+     */
+    public void clear() {
+        keys = new char[INITIAL_CHUNKS];
+        containers = new Container[INITIAL_CHUNKS];
+        size = 0;
+        length = 0;
+    }
+
+    /**
+     * Returns the number of elements currently in the set.
+     *
+     * @return the int size of the set
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Compares this BitmapIntegerSet to another object for equality.
+     * Two sets are equal if they contain all of the same values.
+     *
+     * @param o the object to compare with
+     * @return true if the objects are equal (same elements), false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BitmapIntegerSet other = (BitmapIntegerSet) o;
+        if (length != other.length || size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i] != other.keys[i] || !containers[i].sameValues(other.containers[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return the sum of the elements' hash codes, as for {@link java.util.Set}
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < size; i++) {
+            hash += containers[i].sum(keys[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Checks if the set contains the specified value.
+     *
+     * @param value the integer value to check for
+     * @return true if the value is in the set, false otherwise
+     */
+    public boolean contains(int value) {
+        int i = find(high(value));
+        return i >= 0 && containers[i].contains(low(value));
+    }
+
+    /**
+     * Returns the largest item in the set.
+     *
+     * @return the maximum integer value in the set
+     * @throws IllegalStateException if the set is empty
+     */
+    public int largest() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Cannot find largest element in an empty set.");
+        }
+        return value(keys[size - 1], containers[size - 1].last());
+    }
+
+    /**
+     * Returns the smallest item in the set.
+     *
+     * @return the minimum integer value in the set
+     * @throws IllegalStateException if the set is empty
+     */
+    public int smallest() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Cannot find smallest element in an empty set.");
+        }
+        return value(keys[0], containers[0].first());
+    }
+
+    /**
+     * Adds an item to the set. If the item is already present,
+     * the set remains unchanged.
+     *
+     * @param item the integer to add
+     */
+    public void add(int item) {
+        char high = high(item);
+        int i = find(high);
+        if (i < 0) {
+            i = -i - 1;
+            insertChunk(i, high, new ArrayContainer());
+        }
+        Container c = containers[i];
+        int before = c.cardinality();
+        containers[i] = c.add(low(item));
+        length += containers[i].cardinality() - before;
+    }
+
+    /**
+     * Removes an item from the set. If the item is not present,
+     * the set remains unchanged.
+     *
+     * @param item the integer to remove
+     */
+    public void remove(int item) {
+        int i = find(high(item));
+        if (i < 0) {
+            return;
+        }
+        Container c = containers[i];
+        int before = c.cardinality();
+        containers[i] = c.remove(low(item));
+        length -= before - containers[i].cardinality();
+        if (containers[i].cardinality() == 0) {
+            removeChunk(i);
+        }
+    }
+
+    /**
+     * Performs a set union operation. This method modifies the current set
+     * to contain all unique elements present in either this set or the other set.
+     *
+     * @param other the BitmapIntegerSet to union with this set
+     */
+    public void union(BitmapIntegerSet other) {
+        if (other == this || other.size == 0) {
+            return;
+        }
+        char[] newKeys = new char[size + other.size];
+        Container[] newContainers = new Container[size + other.size];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                newKeys[n] = keys[i];
+                newContainers[n++] = containers[i++];
+            } else if (i == size || other.keys[j] < keys[i]) {
+                newKeys[n] = other.keys[j];
+                newContainers[n++] = other.containers[j++].copy();
+            } else {
+                newKeys[n] = keys[i];
+                newContainers[n++] = containers[i++].or(other.containers[j++]);
+            }
+        }
+        keys = newKeys;
+        containers = newContainers;
+        size = n;
+        recount();
+    }
+
+    /**
+     * Performs a set intersection operation. This method modifies the current set
+     * to contain only the elements that are present in both this set and the other set.
+     *
+     * @param other the BitmapIntegerSet to intersect with this set
+     */
+    public void intersect(BitmapIntegerSet other) {
+        if (other == this) {
+            return;
+        }
+        int n = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                keepChunk(n, keys[i], containers[i].and(other.containers[j]));
+                if (containers[n].cardinality() > 0) {
+                    n++;
+                }
+            }
+        }
+        truncate(n);
+    }
+
+    /**
+     * Performs a set difference operation (this \ other). This method modifies
+     * the current set to remove any elements that are also found in the other set.
+     *
+     * @param other the BitmapIntegerSet whose elements will be removed from this set
+     */
+    public void diff(BitmapIntegerSet other) {
+        if (other == this) {
+            clear();
+            return;
+        }
+        int n = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            Container c = containers[i];
+            if (j < other.size && other.keys[j] == keys[i]) {
+                c = c.andNot(other.containers[j]);
+            }
+            keepChunk(n, keys[i], c);
+            if (c.cardinality() > 0) {
+                n++;
+            }
+        }
+        truncate(n);
+    }
+
+    /**
+     * Performs a set complement operation (other \ this). This method modifies
+     * the current set to become the set of elements that are in the other set
+     * but not in this set's original state.
+     *
+     * @param other the BitmapIntegerSet to compare against
+     */
+    public void complement(BitmapIntegerSet other) {
+        if (other == this) {
+            clear();
+            return;
+        }
+        char[] newKeys = new char[Math.max(INITIAL_CHUNKS, other.size)];
+        Container[] newContainers = new Container[newKeys.length];
+        int n = 0;
+        int i = 0;
+        for (int j = 0; j < other.size; j++) {
+            while (i < size && keys[i] < other.keys[j]) {
+                i++;
+            }
+            Container c = other.containers[j].copy();
+            if (i < size && keys[i] == other.keys[j]) {
+                c = c.andNot(containers[i]);
+            }
+            if (c.cardinality() > 0) {
+                newKeys[n] = other.keys[j];
+                newContainers[n++] = c;
+            }
+        }
+        keys = newKeys;
+        containers = newContainers;
+        size = n;
+        recount();
+    }
+
+    /**
+     * Checks if the set is empty.
+     *
+     * @return true if the set contains no elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Returns the elements in ascending order.
+     *
+     * @return a new array holding every element
+     */
+    public int[] toArray() {
+        int[] values = new int[length];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            n = containers[i].copyTo(keys[i], values, n);
+        }
+        return values;
+    }
+
+    /**
+     * Returns a string representation of the set in the format [elem1, elem2, etc].
+     * Elements are listed in ascending order.
+     *
+     * @return a string representation of the set
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /**
+     * Upper 16 bits with the sign bit flipped, so that chunk keys sort in
+     * the same order as the signed values they hold.
+     */
+    private static char high(int value) {
+        return (char) ((value ^ Integer.MIN_VALUE) >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    private static int value(char high, int low) {
+        return ((high << 16) | low) ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * @return the chunk index, or {@code -(insertion point) - 1} if there is none
+     */
+    private int find(char high) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < high) {
+                lo = mid + 1;
+            } else if (keys[mid] > high) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -lo - 1;
+    }
+
+    private void insertChunk(int i, char high, Container c) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = high;
+        containers[i] = c;
+        size++;
+    }
+
+    private void removeChunk(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        containers[--size] = null;
+    }
+
+    private void keepChunk(int n, char high, Container c) {
+        keys[n] = high;
+        containers[n] = c;
+    }
+
+    /**
+     * Drops the chunks from {@code n} on after an operation compacted the
+     * surviving ones to the front.
+     */
+    private void truncate(int n) {
+        Arrays.fill(containers, n, size, null);
+        size = n;
+        recount();
+    }
+
+    private void recount() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        length = total;
+    }
+
+    /**
+     * The lower 16 bits of the values in one chunk. Mutating operations
+     * return the container to use from then on, which is a different one
+     * when the chunk changes between sparse and dense.
+     */
+    private abstract static class Container {
+        /** Most values an array container holds; beyond this a bitmap is smaller. */
+        static final int ARRAY_MAX = 4096;
+
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        abstract Container add(char low);
+
+        abstract Container remove(char low);
+
+        abstract int first();
+
+        abstract int last();
+
+        /**
+         * Writes the chunk's values in ascending order into {@code out} at {@code n}.
+         *
+         * @return the index after the last value written
+         */
+        abstract int copyTo(char high, int[] out, int n);
+
+        abstract boolean sameValues(Container other);
+
+        /**
+         * @return an independent container with the same values
+         */
+        abstract Container copy();
+
+        /**
+         * Adds every value of {@code other}, which is left unchanged.
+         */
+        abstract Container or(Container other);
+
+        /**
+         * Keeps only the values also in {@code other}, which is left unchanged.
+         */
+        abstract Container and(Container other);
+
+        /**
+         * Removes every value of {@code other}, which is left unchanged.
+         */
+        abstract Container andNot(Container other);
+
+        int sum(char high) {
+            int[] values = new int[cardinality()];
+            copyTo(high, values, 0);
+            int sum = 0;
+            for (int v : values) {
+                sum += v;
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * A sparse chunk: its values in a sorted char array.
+     */
+    private static final class ArrayContainer extends Container {
+        char[] values = new char[4];
+        int cardinality;
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        Container add(char low) {
+            int i = Arrays.binarySearch(values, 0, cardinality, low);
+            if (i >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(low);
+            }
+            i = -i - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            int i = Arrays.binarySearch(values, 0, cardinality, low);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        int first() {
+            return values[0];
+        }
+
+        @Override
+        int last() {
+            return values[cardinality - 1];
+        }
+
+        @Override
+        int copyTo(char high, int[] out, int n) {
+            for (int i = 0; i < cardinality; i++) {
+                out[n++] = value(high, values[i]);
+            }
+            return n;
+        }
+
+        @Override
+        boolean sameValues(Container other) {
+            if (!(other instanceof ArrayContainer) || other.cardinality() != cardinality) {
+                return false;
+            }
+            return Arrays.equals(values, 0, cardinality, ((ArrayContainer) other).values, 0, cardinality);
+        }
+
+        @Override
+        Container copy() {
+            ArrayContainer copy = new ArrayContainer();
+            copy.values = Arrays.copyOf(values, Math.max(4, cardinality));
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.copy().or(this);
+            }
+            ArrayContainer o = (ArrayContainer) other;
+            if (cardinality + o.cardinality > ARRAY_MAX) {
+                BitmapContainer bitmap = toBitmap();
+                bitmap.or(o);
+                return bitmap.cardinality <= ARRAY_MAX ? bitmap.toArrayContainer() : bitmap;
+            }
+            char[] merged = new char[Math.max(4, cardinality + o.cardinality)];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < cardinality && j < o.cardinality) {
+                char a = values[i];
+                char b = o.values[j];
+                merged[n++] = a <= b ? a : b;
+                i += a <= b ? 1 : 0;
+                j += b <= a ? 1 : 0;
+            }
+            System.arraycopy(values, i, merged, n, cardinality - i);
+            n += cardinality - i;
+            System.arraycopy(o.values, j, merged, n, o.cardinality - j);
+            n += o.cardinality - j;
+            values = merged;
+            cardinality = n;
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            int n = 0;
+            if (other instanceof BitmapContainer) {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        values[n++] = values[i];
+                    }
+                }
+            } else {
+                ArrayContainer o = (ArrayContainer) other;
+                int j = 0;
+                for (int i = 0; i < cardinality && j < o.cardinality; i++) {
+                    while (j < o.cardinality && o.values[j] < values[i]) {
+                        j++;
+                    }
+                    if (j < o.cardinality && o.values[j] == values[i]) {
+                        values[n++] = values[i];
+                    }
+                }
+            }
+            cardinality = n;
+            return this;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            int n = 0;
+            if (other instanceof BitmapContainer) {
+                for (int i = 0; i < cardinality; i++) {
+                    if (!other.contains(values[i])) {
+                        values[n++] = values[i];
+                    }
+                }
+            } else {
+                ArrayContainer o = (ArrayContainer) other;
+                int j = 0;
+                for (int i = 0; i < cardinality; i++) {
+                    while (j < o.cardinality && o.values[j] < values[i]) {
+                        j++;
+                    }
+                    if (j == o.cardinality || o.values[j] != values[i]) {
+                        values[n++] = values[i];
+                    }
+                }
+            }
+            cardinality = n;
+            return this;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.words[values[i] >>> 6] |= 1L << values[i];
+            }
+            bitmap.cardinality = cardinality;
+            return bitmap;
+        }
+    }
+
+    /**
+     * A dense chunk: one bit per possible value, 8 KiB in all.
+     */
+    private static final class BitmapContainer extends Container {
+        final long[] words = new long[1024];
+        int cardinality;
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(char low) {
+            long before = words[low >>> 6];
+            long after = before | (1L << low);
+            if (before != after) {
+                words[low >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            long before = words[low >>> 6];
+            long after = before & ~(1L << low);
+            if (before != after) {
+                words[low >>> 6] = after;
+                cardinality--;
+                if (cardinality <= ARRAY_MAX) {
+                    return toArrayContainer();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        int first() {
+            for (int w = 0; w < words.length; w++) {
+                if (words[w] != 0) {
+                    return w * 64 + Long.numberOfTrailingZeros(words[w]);
+                }
+            }
+            throw new IllegalStateException("empty container");
+        }
+
+        @Override
+        int last() {
+            for (int w = words.length - 1; w >= 0; w--) {
+                if (words[w] != 0) {
+                    return w * 64 + 63 - Long.numberOfLeadingZeros(words[w]);
+                }
+            }
+            throw new IllegalStateException("empty container");
+        }
+
+        @Override
+        int copyTo(char high, int[] out, int n) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    out[n++] = value(high, w * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        boolean sameValues(Container other) {
+            return other instanceof BitmapContainer && Arrays.equals(words, ((BitmapContainer) other).words);
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                long[] o = ((BitmapContainer) other).words;
+                int n = 0;
+                for (int w = 0; w < words.length; w++) {
+                    words[w] |= o[w];
+                    n += Long.bitCount(words[w]);
+                }
+                cardinality = n;
+            } else {
+                ArrayContainer o = (ArrayContainer) other;
+                for (int i = 0; i < o.cardinality; i++) {
+                    add(o.values[i]);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.copy().and(this);
+            }
+            long[] o = ((BitmapContainer) other).words;
+            int n = 0;
+            for (int w = 0; w < words.length; w++) {
+                words[w] &= o[w];
+                n += Long.bitCount(words[w]);
+            }
+            cardinality = n;
+            return cardinality <= ARRAY_MAX ? toArrayContainer() : this;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            if (other instanceof BitmapContainer) {
+                long[] o = ((BitmapContainer) other).words;
+                int n = 0;
+                for (int w = 0; w < words.length; w++) {
+                    words[w] &= ~o[w];
+                    n += Long.bitCount(words[w]);
+                }
+                cardinality = n;
+            } else {
+                ArrayContainer o = (ArrayContainer) other;
+                for (int i = 0; i < o.cardinality; i++) {
+                    char low = o.values[i];
+                    long before = words[low >>> 6];
+                    words[low >>> 6] = before & ~(1L << low);
+                    cardinality -= (int) ((before >>> low) & 1);
+                }
+            }
+            return cardinality <= ARRAY_MAX ? toArrayContainer() : this;
+        }
+
+        ArrayContainer toArrayContainer() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[cardinality];
+            int n = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    array.values[n++] = (char) (w * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            array.cardinality = n;
+            return array;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package org.howard.edu.lsp.assignment6;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * JUnit 5 test class for BitmapIntegerSet class
+ */
+public class BitmapIntegerSetTesting {
+
+    private BitmapIntegerSet setA;
+    private BitmapIntegerSet setB;
+
+    /**
+     * Sets up two empty BitmapIntegerSet objects before each test
+     */
+    @BeforeEach
+    void setUp() {
+        setA = new BitmapIntegerSet();
+        setB = new BitmapIntegerSet();
+    }
+
+    @Test
+    @DisplayName("Test clear(): set should be empty after clear")
+    void testClear() {
+        setA.add(1);
+        setA.add(2);
+        setA.clear();
+        assertTrue(setA.isEmpty(), "Set should be empty after clear");
+        assertEquals(0, setA.length(), "Length should be 0 after clear");
+        assertFalse(setA.contains(1), "Set should not contain 1 after clear");
+    }
+
+    @Test
+    @DisplayName("Test length(): adding duplicates should not change length")
+    void testLengthWithDuplicates() {
+        setA.add(10);
+        setA.add(10);
+        setA.add(20);
+        assertEquals(2, setA.length(), "Adding duplicates should not increase length");
+    }
+
+    @Test
+    @DisplayName("Test equals(Object o): should be true for sets with same elements, regardless of order")
+    void testEquals() {
+        setA.add(1);
+        setA.add(70000);
+        setB.add(70000);
+        setB.add(1);
+        assertTrue(setA.equals(setB), "Sets with same elements in different order should be equal");
+        assertTrue(setB.equals(setA), "Equality should be symmetric");
+        assertEquals(setA.hashCode(), setB.hashCode(), "Equal sets should have equal hash codes");
+    }
+
+    @Test
+    @DisplayName("Test equals(Object o): should be false for different elements, null or different types")
+    void testNotEquals() {
+        setA.add(1);
+        setA.add(2);
+        setB.add(1);
+        setB.add(3);
+        assertFalse(setA.equals(setB), "Sets with different elements should not be equal");
+        assertFalse(setA.equals(null), "Set should not be equal to null");
+        assertFalse(setA.equals("String"), "Set should not be equal to a String");
+    }
+
+    @Test
+    @DisplayName("Test contains(int value): should handle negative and extreme values")
+    void testContainsExtremes() {
+        setA.add(Integer.MIN_VALUE);
+        setA.add(-1);
+        setA.add(0);
+        setA.add(Integer.MAX_VALUE);
+        assertTrue(setA.contains(Integer.MIN_VALUE), "Should contain Integer.MIN_VALUE");
+        assertTrue(setA.contains(-1), "Should contain -1");
+        assertTrue(setA.contains(0), "Should contain 0");
+        assertTrue(setA.contains(Integer.MAX_VALUE), "Should contain Integer.MAX_VALUE");
+        assertFalse(setA.contains(1), "Should not contain 1");
+        assertFalse(setA.contains(65535), "Should not contain 65535");
+    }
+
+    @Test
+    @DisplayName("Test largest() and smallest(): should order negative values before positive ones")
+    void testLargestAndSmallest() {
+        setA.add(10);
+        setA.add(-5);
+        setA.add(200000);
+        assertEquals(200000, setA.largest(), "Largest element should be 200000");
+        assertEquals(-5, setA.smallest(), "Smallest element should be -5");
+    }
+
+    @Test
+    @DisplayName("Test largest() and smallest(): should throw IllegalStateException if set is empty")
+    void testLargestAndSmallestThrowException() {
+        Exception largest = assertThrows(IllegalStateException.class, () -> {
+            setA.largest();
+        });
+        assertEquals("Cannot find largest element in an empty set.", largest.getMessage());
+        Exception smallest = assertThrows(IllegalStateException.class, () -> {
+            setA.smallest();
+        });
+        assertEquals("Cannot find smallest element in an empty set.", smallest.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test add(int item) and remove(int item): dense chunks should convert and convert back")
+    void testDenseChunk() {
+        for (int i = 0; i < 10000; i++) {
+            setA.add(i * 3);
+        }
+        assertEquals(10000, setA.length(), "Length should be 10000 after adding a dense chunk");
+        assertTrue(setA.contains(29997), "Set should contain 29997");
+        assertFalse(setA.contains(29998), "Set should not contain 29998");
+        assertEquals(29997, setA.largest(), "Largest element should be 29997");
+        for (int i = 0; i < 9000; i++) {
+            setA.remove(i * 3);
+        }
+        assertEquals(1000, setA.length(), "Length should be 1000 after removing most of the chunk");
+        assertEquals(27000, setA.smallest(), "Smallest element should be 27000");
+        assertFalse(setA.contains(0), "Set should not contain 0 after remove");
+    }
+
+    @Test
+    @DisplayName("Test remove(int item): removing the last element of a chunk should leave the set empty")
+    void testRemoveLast() {
+        setA.add(100000);
+        setA.remove(100000);
+        setA.remove(100000);
+        assertTrue(setA.isEmpty(), "Set should be empty after removing its only element");
+        assertEquals("[]", setA.toString(), "Empty set string should be '[]'");
+    }
+
+    @Test
+    @DisplayName("Test union(BitmapIntegerSet other): should contain all unique elements from both sets")
+    void testUnion() {
+        setA.add(1);
+        setA.add(2);
+        setB.add(2);
+        setB.add(3);
+        setA.union(setB);
+        assertEquals("[1, 2, 3]", setA.toString(), "Union should be [1, 2, 3]");
+    }
+
+    @Test
+    @DisplayName("Test intersect(BitmapIntegerSet other): should contain only common elements")
+    void testIntersect() {
+        setA.add(1);
+        setA.add(2);
+        setA.add(3);
+        setB.add(2);
+        setB.add(3);
+        setB.add(4);
+        setA.intersect(setB);
+        assertEquals("[2, 3]", setA.toString(), "Intersection should be [2, 3]");
+    }
+
+    @Test
+    @DisplayName("Test diff(BitmapIntegerSet other): should remove elements found in other set")
+    void testDiff() {
+        setA.add(1);
+        setA.add(2);
+        setA.add(3);
+        setB.add(2);
+        setB.add(3);
+        setB.add(4);
+        setA.diff(setB);
+        assertEquals("[1]", setA.toString(), "Difference should be [1]");
+    }
+
+    @Test
+    @DisplayName("Test complement(BitmapIntegerSet other): should become elements in other but not in this")
+    void testComplement() {
+        setA.add(1);
+        setA.add(2);
+        setA.add(3);
+        setB.add(2);
+        setB.add(3);
+        setB.add(4);
+        setA.complement(setB);
+        assertEquals("[4]", setA.toString(), "Complement should be [4]");
+        setB.complement(setB);
+        assertTrue(setB.isEmpty(), "Complement with self should result in an empty set");
+    }
+
+    @Test
+    @DisplayName("Test toString(): should list elements in ascending order")
+    void testToString() {
+        assertEquals("[]", setA.toString(), "Empty set string should be '[]'");
+        setA.add(70000);
+        setA.add(2);
+        setA.add(-3);
+        assertEquals("[-3, 2, 70000]", setA.toString(), "Elements should be in ascending order");
+    }
+
+    @Test
+    @DisplayName("Test union, intersect, diff and complement: dense chunks on both sides should combine word by word")
+    void testDenseSetOperations() {
+        // 10000 values each, so both chunks are bitmaps.
+        BitmapIntegerSet union = multiples(2, 20000);
+        union.union(multiples(3, 30000));
+        assertArrayEquals(expected(30000, v -> v % 2 == 0 && v < 20000 || v % 3 == 0), union.toArray(),
+            "Union should hold every multiple of 2 below 20000 and of 3 below 30000");
+        assertEquals(16666, union.length(), "Length should be 16666 after union");
+
+        BitmapIntegerSet intersection = multiples(2, 20000);
+        intersection.intersect(multiples(3, 30000));
+        assertArrayEquals(expected(20000, v -> v % 6 == 0), intersection.toArray(),
+            "Intersection should hold the multiples of 6 below 20000");
+        assertEquals(3334, intersection.length(), "Length should be 3334 after intersect");
+        BitmapIntegerSet denseIntersection = multiples(1, 20000);
+        denseIntersection.intersect(multiples(2, 40000));
+        assertArrayEquals(expected(20000, v -> v % 2 == 0), denseIntersection.toArray(),
+            "Intersection should hold the even numbers below 20000");
+        assertEquals(10000, denseIntersection.length(), "Length should be 10000 when the result stays dense");
+
+        BitmapIntegerSet difference = multiples(2, 20000);
+        difference.diff(multiples(3, 30000));
+        assertArrayEquals(expected(20000, v -> v % 2 == 0 && v % 3 != 0), difference.toArray(),
+            "Difference should hold the even numbers below 20000 that are not multiples of 3");
+
+        BitmapIntegerSet complement = multiples(2, 20000);
+        complement.complement(multiples(3, 30000));
+        assertArrayEquals(expected(30000, v -> v % 3 == 0 && (v % 2 != 0 || v >= 20000)), complement.toArray(),
+            "Complement should hold the multiples of 3 that are not even numbers below 20000");
+        assertEquals(6666, complement.length(), "Length should be 6666 after complement");
+    }
+
+    @Test
+    @DisplayName("Test union, intersect, diff and complement: sparse chunks should combine with dense ones")
+    void testSparseWithDenseSetOperations() {
+        // setA's chunk is an array of 200 values, setB's a bitmap of 10000.
+        for (int v = 0; v < 20000; v += 100) {
+            setA.add(v);
+        }
+        setA.add(-1);
+        setB = multiples(1, 10000);
+
+        BitmapIntegerSet intersection = multiples(1, 10000);
+        intersection.intersect(setA);
+        setA.intersect(setB);
+        assertArrayEquals(expected(10000, v -> v % 100 == 0), setA.toArray(),
+            "Array intersected with bitmap should keep the 100 shared values");
+        assertTrue(intersection.equals(setA), "Bitmap intersected with array should give the same result");
+
+        setA.union(setB);
+        assertArrayEquals(expected(10000, v -> true), setA.toArray(), "Array united with bitmap should be the bitmap");
+        BitmapIntegerSet union = new BitmapIntegerSet();
+        union.add(15000);
+        setB.union(union);
+        assertEquals(10001, setB.length(), "Bitmap united with array should add the one new value");
+
+        setA.diff(multiples(2, 10000));
+        assertArrayEquals(expected(10000, v -> v % 2 == 1), setA.toArray(),
+            "Removing 5000 values should leave the odd numbers");
+        setA.diff(multiples(3, 10000));
+        assertArrayEquals(expected(10000, v -> v % 2 == 1 && v % 3 != 0), setA.toArray(),
+            "Removing the multiples of 3 should leave 3333 values");
+
+        // Converted back to an array, the chunk must still accept updates.
+        setA.add(2);
+        setA.remove(1);
+        assertTrue(setA.contains(2) && !setA.contains(1), "Chunk should update after converting back");
+        assertEquals(3333, setA.length(), "Length should be 3333 after one add and one remove");
+        for (int v = 0; v < 10000; v++) {
+            setA.add(v);
+        }
+        assertArrayEquals(expected(10000, v -> true), setA.toArray(), "Chunk should grow back into a bitmap");
+    }
+
+    /**
+     * @return a set of the multiples of step in [0, limit)
+     */
+    private static BitmapIntegerSet multiples(int step, int limit) {
+        BitmapIntegerSet set = new BitmapIntegerSet();
+        for (int v = 0; v < limit; v += step) {
+            set.add(v);
+        }
+        return set;
+    }
+
+    /**
+     * @return the values in [0, limit) that pass the test, in ascending order
+     */
+    private static int[] expected(int limit, IntPredicate keep) {
+        return IntStream.range(0, limit).filter(keep).toArray();
+    }
+}
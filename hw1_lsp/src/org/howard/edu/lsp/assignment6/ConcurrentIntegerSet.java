@@ -0,0 +1,630 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A thread-safe set of integers with the same operations as
+ * {@link IntegerSet}, for many threads adding and removing values at once.
+ *
+ * Values are split into chunks of 4096 by their upper 20 bits. Each chunk is
+ * a bitmap of 64 atomic words (512 bytes), created the first time a value in
+ * it is added. {@link #add(int)} and {@link #remove(int)} flip one bit with a
+ * compare-and-set, and {@link #contains(int)} reads one word without
+ * locking, so threads updating different values never wait for each other.
+ *
+ * Chunks are found through 1024 pages of 1024 chunk references. A page is
+ * created with its first chunk and keeps a bitmap of which of its chunks
+ * exist, so an empty set holds only the page table, and scans such as
+ * {@link #smallest()} or {@link #equals} visit existing chunks only. A value
+ * alone in its chunk costs that chunk's 512 bytes; bulk operations release
+ * the chunks they leave empty.
+ *
+ * Bulk operations ({@link #union}, {@link #intersect}, {@link #diff},
+ * {@link #complement}, {@link #equals}, {@link #toString} and the like)
+ * see and produce a consistent snapshot. Point updates hold the read side of
+ * one of several read-write locks, picked by thread so that concurrent
+ * writers rarely share one, and a bulk operation holds the write side of all
+ * of them on both sets. Sets are always locked in the order they were
+ * created, so two bulk operations on the same pair of sets cannot deadlock.
+ *
+ * {@link #length()} and {@link #isEmpty()} read a running count without
+ * locking. While an add and a remove race on other threads the count can
+ * trail either of them, so it may be off by the number of updates in
+ * progress (and is never reported below 0); once they finish it is exact.
+ * {@link #exactLength()} reads the count of a snapshot. Chunks emptied by
+ * {@link #remove(int)} stay allocated until the next bulk operation or
+ * {@link #clear()}. {@link #toString()} lists elements in ascending order.
+ */
+public class ConcurrentIntegerSet {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNKS = 1 << (32 - CHUNK_BITS);
+    private static final int WORDS_PER_CHUNK = (1 << CHUNK_BITS) / 64;
+    private static final int PAGE_BITS = 10;
+    private static final int CHUNKS_PER_PAGE = 1 << PAGE_BITS;
+    private static final int PAGES = CHUNKS / CHUNKS_PER_PAGE;
+    private static final int STRIPES =
+        Math.min(64, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1);
+    private static final AtomicLong SERIAL = new AtomicLong();
+
+    // Orders the locking of two sets in a bulk operation.
+    private final long serial = SERIAL.getAndIncrement();
+    private final ReentrantReadWriteLock[] stripes = new ReentrantReadWriteLock[STRIPES];
+    private final AtomicReferenceArray<Page> pages = new AtomicReferenceArray<>(PAGES);
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Creates an empty set.
+     */
+    public ConcurrentIntegerSet() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Clears the internal representation of the set, removing all elements.
+     */
+    public void clear() {
+        lockAll(this, null);
+        try {
+            for (int p = 0; p < PAGES; p++) {
+                pages.set(p, null);
+            }
+            count.reset();
+        } finally {
+            unlockAll(this, null);
+        }
+    }
+
+    /**
+     * Returns the number of elements in the set without locking. While other
+     * threads are adding or removing values the result may be off by the
+     * updates still in progress, but is never negative; once they finish it
+     * is exact.
+     *
+     * @return the int size of the set
+     */
+    public int length() {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, count.sum()));
+    }
+
+    /**
+     * Returns the number of elements in a consistent snapshot of the set.
+     * This briefly blocks updates; with none in progress the running count
+     * is exact, so no chunk has to be counted.
+     *
+     * @return the int size of the set
+     */
+    public int exactLength() {
+        lockAll(this, null);
+        try {
+            return (int) Math.min(Integer.MAX_VALUE, count.sum());
+        } finally {
+            unlockAll(this, null);
+        }
+    }
+
+    /**
+     * Compares this ConcurrentIntegerSet to another object for equality.
+     * Two sets are equal if they contain all of the same values at the
+     * moment of comparison.
+     *
+     * @param o the object to compare with
+     * @return true if the objects are equal (same elements), false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ConcurrentIntegerSet other = (ConcurrentIntegerSet) o;
+        lockAll(this, other);
+        try {
+            if (count.sum() != other.count.sum()) {
+                return false;
+            }
+            for (int c = nextChunk(this, other, 0); c >= 0; c = nextChunk(this, other, c + 1)) {
+                AtomicLongArray mine = chunk(c);
+                AtomicLongArray theirs = other.chunk(c);
+                for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                    if (word(mine, w) != word(theirs, w)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } finally {
+            unlockAll(this, other);
+        }
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return the sum of the elements' hash codes, as for {@link java.util.Set}
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int value : toArray()) {
+            hash += value;
+        }
+        return hash;
+    }
+
+    /**
+     * Checks if the set contains the specified value. This never blocks.
+     *
+     * @param value the integer value to check for
+     * @return true if the value is in the set, false otherwise
+     */
+    public boolean contains(int value) {
+        AtomicLongArray chunk = chunk(chunkIndex(value));
+        return chunk != null && (chunk.get(wordIndex(value)) & (1L << value)) != 0;
+    }
+
+    /**
+     * Returns the largest item in the set.
+     *
+     * @return the maximum integer value in the set
+     * @throws IllegalStateException if the set is empty
+     */
+    public int largest() {
+        lockAll(this, null);
+        try {
+            for (int c = previousChunk(CHUNKS - 1); c >= 0; c = previousChunk(c - 1)) {
+                AtomicLongArray chunk = chunk(c);
+                for (int w = WORDS_PER_CHUNK - 1; w >= 0; w--) {
+                    long word = chunk.get(w);
+                    if (word != 0) {
+                        return value(c, w, 63 - Long.numberOfLeadingZeros(word));
+                    }
+                }
+            }
+        } finally {
+            unlockAll(this, null);
+        }
+        throw new IllegalStateException("Cannot find largest element in an empty set.");
+    }
+
+    /**
+     * Returns the smallest item in the set.
+     *
+     * @return the minimum integer value in the set
+     * @throws IllegalStateException if the set is empty
+     */
+    public int smallest() {
+        lockAll(this, null);
+        try {
+            for (int c = nextChunk(0); c >= 0; c = nextChunk(c + 1)) {
+                AtomicLongArray chunk = chunk(c);
+                for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                    long word = chunk.get(w);
+                    if (word != 0) {
+                        return value(c, w, Long.numberOfTrailingZeros(word));
+                    }
+                }
+            }
+        } finally {
+            unlockAll(this, null);
+        }
+        throw new IllegalStateException("Cannot find smallest element in an empty set.");
+    }
+
+    /**
+     * Adds an item to the set. If the item is already present,
+     * the set remains unchanged.
+     *
+     * @param item the integer to add
+     */
+    public void add(int item) {
+        ReentrantReadWriteLock.ReadLock lock = stripe().readLock();
+        lock.lock();
+        try {
+            AtomicLongArray chunk = chunkFor(chunkIndex(item));
+            int w = wordIndex(item);
+            long bit = 1L << item;
+            long word;
+            do {
+                word = chunk.get(w);
+                if ((word & bit) != 0) {
+                    return;
+                }
+            } while (!chunk.compareAndSet(w, word, word | bit));
+            count.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes an item from the set. If the item is not present,
+     * the set remains unchanged.
+     *
+     * @param item the integer to remove
+     */
+    public void remove(int item) {
+        ReentrantReadWriteLock.ReadLock lock = stripe().readLock();
+        lock.lock();
+        try {
+            AtomicLongArray chunk = chunk(chunkIndex(item));
+            if (chunk == null) {
+                return;
+            }
+            int w = wordIndex(item);
+            long bit = 1L << item;
+            long word;
+            do {
+                word = chunk.get(w);
+                if ((word & bit) == 0) {
+                    return;
+                }
+            } while (!chunk.compareAndSet(w, word, word & ~bit));
+            count.decrement();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Performs a set union operation. This method modifies the current set
+     * to contain all unique elements present in either this set or the other set,
+     * as of a single moment in both.
+     *
+     * @param other the ConcurrentIntegerSet to union with this set
+     */
+    public void union(ConcurrentIntegerSet other) {
+        if (other == this) {
+            return;
+        }
+        lockAll(this, other);
+        try {
+            for (int c = other.nextChunk(0); c >= 0; c = other.nextChunk(c + 1)) {
+                AtomicLongArray theirs = other.chunk(c);
+                AtomicLongArray mine = chunkFor(c);
+                for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                    mine.set(w, mine.get(w) | theirs.get(w));
+                }
+            }
+            recount();
+        } finally {
+            unlockAll(this, other);
+        }
+    }
+
+    /**
+     * Performs a set intersection operation. This method modifies the current set
+     * to contain only the elements that are present in both this set and the other set,
+     * as of a single moment in both.
+     *
+     * @param other the ConcurrentIntegerSet to intersect with this set
+     */
+    public void intersect(ConcurrentIntegerSet other) {
+        if (other == this) {
+            return;
+        }
+        lockAll(this, other);
+        try {
+            for (int c = nextChunk(0); c >= 0; c = nextChunk(c + 1)) {
+                AtomicLongArray mine = chunk(c);
+                AtomicLongArray theirs = other.chunk(c);
+                for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                    mine.set(w, mine.get(w) & word(theirs, w));
+                }
+            }
+            recount();
+        } finally {
+            unlockAll(this, other);
+        }
+    }
+
+    /**
+     * Performs a set difference operation (this \ other). This method modifies
+     * the current set to remove any elements that are also found in the other set.
+     *
+     * @param other the ConcurrentIntegerSet whose elements will be removed from this set
+     */
+    public void diff(ConcurrentIntegerSet other) {
+        if (other == this) {
+            clear();
+            return;
+        }
+        lockAll(this, other);
+        try {
+            for (int c = nextChunk(0); c >= 0; c = nextChunk(c + 1)) {
+                AtomicLongArray mine = chunk(c);
+                AtomicLongArray theirs = other.chunk(c);
+                if (theirs != null) {
+                    for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                        mine.set(w, mine.get(w) & ~theirs.get(w));
+                    }
+                }
+            }
+            recount();
+        } finally {
+            unlockAll(this, other);
+        }
+    }
+
+    /**
+     * Performs a set complement operation (other \ this). This method modifies
+     * the current set to become the set of elements that are in the other set
+     * but not in this set's original state.
+     *
+     * @param other the ConcurrentIntegerSet to compare against
+     */
+    public void complement(ConcurrentIntegerSet other) {
+        if (other == this) {
+            clear();
+            return;
+        }
+        lockAll(this, other);
+        try {
+            for (int c = nextChunk(0); c >= 0; c = nextChunk(c + 1)) {
+                if (other.chunk(c) == null) {
+                    release(c);
+                }
+            }
+            for (int c = other.nextChunk(0); c >= 0; c = other.nextChunk(c + 1)) {
+                AtomicLongArray theirs = other.chunk(c);
+                AtomicLongArray mine = chunkFor(c);
+                for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                    mine.set(w, theirs.get(w) & ~mine.get(w));
+                }
+            }
+            recount();
+        } finally {
+            unlockAll(this, other);
+        }
+    }
+
+    /**
+     * Checks if the set is empty, using the same running count as {@link #length()}.
+     *
+     * @return true if the set contains no elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return count.sum() <= 0;
+    }
+
+    /**
+     * Returns a consistent snapshot of the elements in ascending order.
+     *
+     * @return a new array holding every element
+     */
+    public int[] toArray() {
+        lockAll(this, null);
+        try {
+            int[] values = new int[(int) count.sum()];
+            int n = 0;
+            for (int c = nextChunk(0); c >= 0; c = nextChunk(c + 1)) {
+                AtomicLongArray chunk = chunk(c);
+                for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                    long word = chunk.get(w);
+                    while (word != 0) {
+                        values[n++] = value(c, w, Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            }
+            return values;
+        } finally {
+            unlockAll(this, null);
+        }
+    }
+
+    /**
+     * Returns a string representation of the set in the format [elem1, elem2, etc].
+     * Elements are listed in ascending order.
+     *
+     * @return a string representation of the set
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /**
+     * Chunk index of a value, with the sign bit flipped so that chunks are
+     * in the same order as the signed values they hold.
+     */
+    private static int chunkIndex(int value) {
+        return (value ^ Integer.MIN_VALUE) >>> CHUNK_BITS;
+    }
+
+    private static int wordIndex(int value) {
+        return (value & ((1 << CHUNK_BITS) - 1)) >>> 6;
+    }
+
+    private static int value(int chunk, int word, int bit) {
+        return ((chunk << CHUNK_BITS) | (word << 6) | bit) ^ Integer.MIN_VALUE;
+    }
+
+    private static long word(AtomicLongArray chunk, int w) {
+        return chunk == null ? 0L : chunk.get(w);
+    }
+
+    /**
+     * @return the chunk, or null if no value in it was ever added
+     */
+    private AtomicLongArray chunk(int c) {
+        Page page = pages.get(c >>> PAGE_BITS);
+        return page == null ? null : page.chunks.get(c & (CHUNKS_PER_PAGE - 1));
+    }
+
+    /**
+     * @return the chunk, created along with its page if this is the first value in it
+     */
+    private AtomicLongArray chunkFor(int c) {
+        Page page = pages.get(c >>> PAGE_BITS);
+        if (page == null) {
+            Page created = new Page();
+            page = pages.compareAndExchange(c >>> PAGE_BITS, null, created);
+            if (page == null) {
+                page = created;
+            }
+        }
+        int slot = c & (CHUNKS_PER_PAGE - 1);
+        AtomicLongArray chunk = page.chunks.get(slot);
+        if (chunk == null) {
+            AtomicLongArray created = new AtomicLongArray(WORDS_PER_CHUNK);
+            chunk = page.chunks.compareAndExchange(slot, null, created);
+            if (chunk == null) {
+                chunk = created;
+                long bit = 1L << slot;
+                long word;
+                do {
+                    word = page.populated.get(slot >>> 6);
+                } while (!page.populated.compareAndSet(slot >>> 6, word, word | bit));
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Drops a chunk, and its page once the page has none left; the caller
+     * holds all write locks.
+     */
+    private void release(int c) {
+        Page page = pages.get(c >>> PAGE_BITS);
+        int slot = c & (CHUNKS_PER_PAGE - 1);
+        page.chunks.set(slot, null);
+        page.populated.set(slot >>> 6, page.populated.get(slot >>> 6) & ~(1L << slot));
+        for (int w = 0; w < page.populated.length(); w++) {
+            if (page.populated.get(w) != 0) {
+                return;
+            }
+        }
+        pages.set(c >>> PAGE_BITS, null);
+    }
+
+    /**
+     * @return the first existing chunk at or after {@code from}, or -1
+     */
+    private int nextChunk(int from) {
+        int bit = from & (CHUNKS_PER_PAGE - 1);
+        for (int p = from >>> PAGE_BITS; p < PAGES; p++, bit = 0) {
+            Page page = pages.get(p);
+            if (page == null) {
+                continue;
+            }
+            for (int w = bit >>> 6; w < page.populated.length(); w++) {
+                long bits = page.populated.get(w);
+                if (w == bit >>> 6) {
+                    bits &= -1L << bit;
+                }
+                if (bits != 0) {
+                    return (p << PAGE_BITS) | (w << 6) | Long.numberOfTrailingZeros(bits);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the last existing chunk at or before {@code from}, or -1
+     */
+    private int previousChunk(int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int bit = from & (CHUNKS_PER_PAGE - 1);
+        for (int p = from >>> PAGE_BITS; p >= 0; p--, bit = CHUNKS_PER_PAGE - 1) {
+            Page page = pages.get(p);
+            if (page == null) {
+                continue;
+            }
+            for (int w = bit >>> 6; w >= 0; w--) {
+                long bits = page.populated.get(w);
+                if (w == bit >>> 6) {
+                    bits &= -1L >>> (63 - (bit & 63));
+                }
+                if (bits != 0) {
+                    return (p << PAGE_BITS) | (w << 6) | (63 - Long.numberOfLeadingZeros(bits));
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the first chunk at or after {@code from} that exists in either set, or -1
+     */
+    private static int nextChunk(ConcurrentIntegerSet a, ConcurrentIntegerSet b, int from) {
+        int x = a.nextChunk(from);
+        int y = b.nextChunk(from);
+        return x < 0 ? y : y < 0 ? x : Math.min(x, y);
+    }
+
+    /**
+     * Resets the running count after a bulk operation and releases the
+     * chunks it left empty; the caller holds all write locks.
+     */
+    private void recount() {
+        long total = 0;
+        for (int c = nextChunk(0); c >= 0; c = nextChunk(c + 1)) {
+            AtomicLongArray chunk = chunk(c);
+            long bits = 0;
+            for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                bits += Long.bitCount(chunk.get(w));
+            }
+            if (bits == 0) {
+                release(c);
+            }
+            total += bits;
+        }
+        count.reset();
+        count.add(total);
+    }
+
+    private ReentrantReadWriteLock stripe() {
+        int h = System.identityHashCode(Thread.currentThread());
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Takes every write lock of one or two sets, older set first.
+     */
+    private static void lockAll(ConcurrentIntegerSet a, ConcurrentIntegerSet b) {
+        if (b != null && b.serial < a.serial) {
+            ConcurrentIntegerSet t = a;
+            a = b;
+            b = t;
+        }
+        for (ReentrantReadWriteLock lock : a.stripes) {
+            lock.writeLock().lock();
+        }
+        if (b != null) {
+            for (ReentrantReadWriteLock lock : b.stripes) {
+                lock.writeLock().lock();
+            }
+        }
+    }
+
+    private static void unlockAll(ConcurrentIntegerSet a, ConcurrentIntegerSet b) {
+        if (b != null) {
+            for (ReentrantReadWriteLock lock : b.stripes) {
+                lock.writeLock().unlock();
+            }
+        }
+        for (ReentrantReadWriteLock lock : a.stripes) {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 1024 chunk references and a bitmap of the ones that are set.
+     */
+    private static final class Page {
+        final AtomicReferenceArray<AtomicLongArray> chunks = new AtomicReferenceArray<>(CHUNKS_PER_PAGE);
+        final AtomicLongArray populated = new AtomicLongArray(CHUNKS_PER_PAGE / 64);
+    }
+}
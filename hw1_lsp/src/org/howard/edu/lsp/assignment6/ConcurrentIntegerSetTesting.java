@@ -0,0 +1,187 @@
+package org.howard.edu.lsp.assignment6;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * JUnit 5 test class for ConcurrentIntegerSet class
+ */
+public class ConcurrentIntegerSetTesting {
+
+    private ConcurrentIntegerSet setA;
+    private ConcurrentIntegerSet setB;
+
+    /**
+     * Sets up two empty ConcurrentIntegerSet objects before each test
+     */
+    @BeforeEach
+    void setUp() {
+        setA = new ConcurrentIntegerSet();
+        setB = new ConcurrentIntegerSet();
+    }
+
+    @Test
+    @DisplayName("Test add(int item) and remove(int item): should update contents and length")
+    void testAddAndRemove() {
+        setA.add(5);
+        setA.add(5);
+        setA.add(-70000);
+        assertEquals(2, setA.length(), "Adding a duplicate should not increase length");
+        assertTrue(setA.contains(-70000), "Set should contain -70000");
+        setA.remove(5);
+        setA.remove(6);
+        assertFalse(setA.contains(5), "Set should not contain 5 after remove");
+        assertEquals(1, setA.length(), "Length should be 1 after removing one element");
+        assertEquals(1, setA.exactLength(), "Exact length should be 1");
+    }
+
+    @Test
+    @DisplayName("Test clear() and isEmpty(): set should be empty after clear")
+    void testClear() {
+        assertTrue(setA.isEmpty(), "New set should be empty");
+        setA.add(1);
+        setA.add(2);
+        setA.clear();
+        assertTrue(setA.isEmpty(), "Set should be empty after clear");
+        assertFalse(setA.contains(1), "Set should not contain 1 after clear");
+    }
+
+    @Test
+    @DisplayName("Test equals(Object o): should be true for sets with same elements, regardless of order")
+    void testEquals() {
+        setA.add(1);
+        setA.add(2);
+        setB.add(2);
+        setB.add(1);
+        assertTrue(setA.equals(setB), "Sets with same elements in different order should be equal");
+        assertEquals(setA.hashCode(), setB.hashCode(), "Equal sets should have equal hash codes");
+        setB.remove(1);
+        assertFalse(setA.equals(setB), "Sets with different elements should not be equal");
+        assertFalse(setA.equals(null), "Set should not be equal to null");
+    }
+
+    @Test
+    @DisplayName("Test largest() and smallest(): should return extremes or throw for an empty set")
+    void testLargestAndSmallest() {
+        Exception exception = assertThrows(IllegalStateException.class, () -> {
+            setA.largest();
+        });
+        assertEquals("Cannot find largest element in an empty set.", exception.getMessage());
+        setA.add(Integer.MAX_VALUE);
+        setA.add(Integer.MIN_VALUE);
+        setA.add(0);
+        assertEquals(Integer.MAX_VALUE, setA.largest(), "Largest element should be Integer.MAX_VALUE");
+        assertEquals(Integer.MIN_VALUE, setA.smallest(), "Smallest element should be Integer.MIN_VALUE");
+    }
+
+    @Test
+    @DisplayName("Test union, intersect, diff and complement: should match the IntegerSet results")
+    void testSetOperations() {
+        setA.add(1);
+        setA.add(2);
+        setA.add(3);
+        setB.add(2);
+        setB.add(3);
+        setB.add(4);
+        setA.union(setB);
+        assertEquals("[1, 2, 3, 4]", setA.toString(), "Union should be [1, 2, 3, 4]");
+        assertEquals(4, setA.length(), "Length should be 4 after union");
+        setA.remove(4);
+        setA.intersect(setB);
+        assertEquals("[2, 3]", setA.toString(), "Intersection should be [2, 3]");
+        setA.add(1);
+        setA.diff(setB);
+        assertEquals("[1]", setA.toString(), "Difference should be [1]");
+        setA.add(2);
+        setA.complement(setB);
+        assertEquals("[3, 4]", setA.toString(), "Complement should be [3, 4]");
+        assertEquals(2, setA.length(), "Length should be 2 after complement");
+    }
+
+    @Test
+    @DisplayName("Test set operations: values spread over the whole int range should stay in order")
+    void testSpreadValues() {
+        List<Integer> expected = new ArrayList<>();
+        for (long v = Integer.MIN_VALUE; v <= Integer.MAX_VALUE; v += 40_000_003L) {
+            setA.add((int) v);
+            expected.add((int) v);
+            if (expected.size() % 3 == 0) {
+                setB.add((int) v);
+            }
+        }
+        setA.add(Integer.MAX_VALUE);
+        expected.add(Integer.MAX_VALUE);
+        assertEquals(expected.toString(), setA.toString(), "Elements should be listed in ascending order");
+        assertEquals(expected.get(0), setA.smallest(), "Smallest should be the first value");
+        assertEquals(Integer.MAX_VALUE, setA.largest(), "Largest should be Integer.MAX_VALUE");
+
+        setA.diff(setB);
+        assertEquals(expected.size() - setB.length(), setA.exactLength(), "Difference should drop every third value");
+        setA.union(setB);
+        assertEquals(expected.size(), setA.exactLength(), "Union should restore every value");
+        setA.intersect(setB);
+        assertTrue(setA.equals(setB), "Intersection with a subset should equal the subset");
+        for (int value : setB.toArray()) {
+            setA.remove(value);
+        }
+        setA.add(7);
+        assertEquals(7, setA.smallest(), "Chunks emptied by remove should be skipped");
+        assertEquals(7, setA.largest(), "Chunks emptied by remove should be skipped");
+        setA.complement(setB);
+        assertTrue(setA.equals(setB), "Complement of a disjoint set should be the other set");
+    }
+
+    @Test
+    @DisplayName("Test add(int item): concurrent adds from many threads should not lose updates")
+    void testConcurrentAdds() throws InterruptedException {
+        int threads = 4;
+        int perThread = 50000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            Thread worker = new Thread(() -> {
+                // Overlapping ranges, so threads race on the same words.
+                for (int i = 0; i < perThread; i++) {
+                    setA.add(i * 2 + offset);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        int expected = perThread * 2 + 2;
+        assertEquals(expected, setA.length(), "Every distinct value should be counted once");
+        assertEquals(expected, setA.exactLength(), "Exact length should match the running count");
+    }
+
+    @Test
+    @DisplayName("Test union(ConcurrentIntegerSet other): should not deadlock when two sets union each other")
+    void testCrossUnion() throws InterruptedException {
+        setA.add(1);
+        setB.add(2);
+        Thread forward = new Thread(() -> {
+            for (int i = 0; i < 50; i++) {
+                setA.union(setB);
+            }
+        });
+        Thread backward = new Thread(() -> {
+            for (int i = 0; i < 50; i++) {
+                setB.union(setA);
+            }
+        });
+        forward.start();
+        backward.start();
+        forward.join();
+        backward.join();
+        assertTrue(setA.contains(1) && setA.contains(2), "setA should hold both values");
+        assertTrue(setB.contains(1) && setB.contains(2), "setB should hold both values");
+    }
+}
@@ -1,23 +1,49 @@
 package org.howard.edu.lsp.assignment6;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
 
 /**
- * Represents a set of integers stored internally as an {@link ArrayList}.
+ * Represents a set of integers stored internally as primitive int arrays.
  * Ensures that no duplicate elements are stored and provides
  * standard set operations like union, intersection, and difference.
+ *
+ * Elements are kept in insertion order in a dense array and indexed by an
+ * open-addressing hash table with linear probing, so adding, removing and
+ * looking up an element take constant expected time and no value is boxed.
  */
 public class IntegerSet {
-    // Use an ArrayList to store the elements of the set.
-    private List<Integer> set = new ArrayList<Integer>();
+    private static final int INITIAL_CAPACITY = 8;
+
+    // The elements in insertion order; positions below 'used' that are
+    // marked in 'removed' have been deleted and are skipped.
+    private int[] elements;
+    private long[] removed;
+    private int used;
+    private int size;
+
+    // Hash table of (position in 'elements') + 1. The empty-slot sentinel is 0,
+    // and the table doubles once it is more than half full.
+    private int[] slots;
+    private int mask;
+
+    /**
+     * Creates an empty set.
+     */
+    public IntegerSet() {
+        clear();
+    }
 
     /**
      * Clears the internal representation of the set, removing all elements.
      */
     public void clear() {
-        set.clear();
+        elements = new int[INITIAL_CAPACITY];
+        removed = new long[1];
+        used = 0;
+        size = 0;
+        slots = new int[INITIAL_CAPACITY * 2];
+        mask = slots.length - 1;
     }
 
     /**
@@ -26,7 +52,7 @@ public class IntegerSet {
      * @return the int size of the set
      */
     public int length() {
-        return set.size();
+        return size;
     }
 
     /**
@@ -46,16 +72,37 @@ public class IntegerSet {
             return false;
         }
         IntegerSet otherSet = (IntegerSet) o;
-        
+
         // If sizes are different, they are not equal.
         if (this.length() != otherSet.length()) {
             return false;
         }
-        
+
         // Check if this set contains all elements of the other set.
         // Since sizes are equal and sets don't have duplicates,
-        // a one-way 'containsAll' check is sufficient.
-        return this.set.containsAll(otherSet.set);
+        // a one-way check is sufficient.
+        for (int p = 0; p < otherSet.used; p++) {
+            if (otherSet.isLive(p) && !contains(otherSet.elements[p])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return the sum of the elements' hash codes, as for {@link java.util.Set}
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int p = 0; p < used; p++) {
+            if (isLive(p)) {
+                hash += elements[p];
+            }
+        }
+        return hash;
     }
 
     /**
@@ -65,7 +112,7 @@ public class IntegerSet {
      * @return true if the value is in the set, false otherwise
      */
     public boolean contains(int value) {
-        return set.contains(value);
+        return slots[find(value)] != 0;
     }
 
     /**
@@ -78,7 +125,13 @@ public class IntegerSet {
         if (isEmpty()) {
             throw new IllegalStateException("Cannot find largest element in an empty set.");
         }
-        return Collections.max(set);
+        int largest = Integer.MIN_VALUE;
+        for (int p = 0; p < used; p++) {
+            if (isLive(p)) {
+                largest = Math.max(largest, elements[p]);
+            }
+        }
+        return largest;
     }
 
     /**
@@ -91,7 +144,13 @@ public class IntegerSet {
         if (isEmpty()) {
             throw new IllegalStateException("Cannot find smallest element in an empty set.");
         }
-        return Collections.min(set);
+        int smallest = Integer.MAX_VALUE;
+        for (int p = 0; p < used; p++) {
+            if (isLive(p)) {
+                smallest = Math.min(smallest, elements[p]);
+            }
+        }
+        return smallest;
     }
 
     /**
@@ -101,8 +160,24 @@ public class IntegerSet {
      * @param item the integer to add
      */
     public void add(int item) {
-        if (!set.contains(item)) {
-            set.add(item);
+        int slot = find(item);
+        if (slots[slot] != 0) {
+            return;
+        }
+        if (used == elements.length) {
+            // Reuse the space of removed elements before growing.
+            if (used - size >= used / 2) {
+                compact();
+            } else {
+                elements = Arrays.copyOf(elements, used * 2);
+                removed = Arrays.copyOf(removed, (used * 2 + 63) >>> 6);
+            }
+            slot = find(item);
+        }
+        elements[used] = item;
+        slots[slot] = ++used;
+        if (++size * 2 > slots.length) {
+            rebuild(slots.length * 2);
         }
     }
 
@@ -113,9 +188,18 @@ public class IntegerSet {
      * @param item the integer to remove
      */
     public void remove(int item) {
-        // Integer.valueOf(item) ensures Java calls
-        // remove(Object) instead of remove(int index)
-        set.remove(Integer.valueOf(item));
+        int slot = find(item);
+        int position = slots[slot] - 1;
+        if (position < 0) {
+            return;
+        }
+        removed[position >>> 6] |= 1L << position;
+        size--;
+        deleteSlot(slot);
+        // Keep the removed positions from outnumbering the elements.
+        if (used - size > size) {
+            compact();
+        }
     }
 
     /**
@@ -125,8 +209,13 @@ public class IntegerSet {
      * @param other the IntegerSet to union with this set
      */
     public void union(IntegerSet other) {
-        for (Integer item : other.set) {
-            this.add(item); // Now 'add' method handles duplicate checking
+        if (other == this) {
+            return;
+        }
+        for (int p = 0; p < other.used; p++) {
+            if (other.isLive(p)) {
+                add(other.elements[p]);
+            }
         }
     }
 
@@ -137,8 +226,9 @@ public class IntegerSet {
      * @param other the IntegerSet to intersect with this set
      */
     public void intersect(IntegerSet other) {
-        // retainAll keeps only the elements contained in the other collection
-        set.retainAll(other.set);
+        if (other != this) {
+            retain(other::contains);
+        }
     }
 
     /**
@@ -148,8 +238,11 @@ public class IntegerSet {
      * @param other the IntegerSet whose elements will be removed from this set
      */
     public void diff(IntegerSet other) {
-        // removeAll removes all elements contained in the other collection
-        set.removeAll(other.set);
+        if (other == this) {
+            clear();
+        } else {
+            retain(item -> !other.contains(item));
+        }
     }
 
     /**
@@ -160,17 +253,24 @@ public class IntegerSet {
      * @param other the IntegerSet to compare against
      */
     public void complement(IntegerSet other) {
-        // Store the original elements of 'this' set
-        List<Integer> originalThis = new ArrayList<>(this.set);
-        
-        // Clear 'this' set
-        this.set.clear();
-        
-        // Add all elements from 'other' set to 'this' set
-        this.set.addAll(other.set);
-        
-        // Remove the elements that were originally in 'this' set
-        this.set.removeAll(originalThis);
+        if (other == this) {
+            clear();
+            return;
+        }
+        // Collect the result in the other set's order while this set still
+        // holds its original elements, then index it.
+        int[] result = new int[Math.max(INITIAL_CAPACITY, other.size)];
+        int n = 0;
+        for (int p = 0; p < other.used; p++) {
+            if (other.isLive(p) && !contains(other.elements[p])) {
+                result[n++] = other.elements[p];
+            }
+        }
+        elements = result;
+        removed = new long[(result.length + 63) >>> 6];
+        used = n;
+        size = n;
+        rebuild(tableCapacity(n));
     }
 
     /**
@@ -179,17 +279,119 @@ public class IntegerSet {
      * @return true if the set contains no elements, false otherwise
      */
     public boolean isEmpty() {
-        return set.isEmpty();
+        return size == 0;
     }
 
     /**
      * Returns a string representation of the set in the format [elem1, elem2, etc].
-     * The order of elements is based on the internal ArrayList.
+     * Elements are listed in the order they were added.
      *
      * @return a string representation of the set
      */
     @Override
     public String toString() {
-        return set.toString();
+        StringBuilder sb = new StringBuilder("[");
+        for (int p = 0; p < used; p++) {
+            if (isLive(p)) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(elements[p]);
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    private boolean isLive(int position) {
+        return (removed[position >>> 6] & (1L << position)) == 0;
+    }
+
+    /**
+     * @return the slot holding the value, or the empty slot where it would go
+     */
+    private int find(int value) {
+        int slot = hash(value) & mask;
+        while (slots[slot] != 0 && elements[slots[slot] - 1] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties a slot and moves later entries of its probe run back into the
+     * gap, so lookups never need tombstones in the table.
+     */
+    private void deleteSlot(int gap) {
+        slots[gap] = 0;
+        for (int slot = (gap + 1) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int home = hash(elements[slots[slot] - 1]) & mask;
+            // Move the entry unless its home lies cyclically in (gap, slot].
+            boolean stays = gap <= slot ? gap < home && home <= slot : gap < home || home <= slot;
+            if (!stays) {
+                slots[gap] = slots[slot];
+                slots[slot] = 0;
+                gap = slot;
+            }
+        }
+    }
+
+    /**
+     * Keeps the elements that pass the test, in their current order.
+     */
+    private void retain(IntPredicate keep) {
+        int n = 0;
+        for (int p = 0; p < used; p++) {
+            if (isLive(p) && keep.test(elements[p])) {
+                elements[n++] = elements[p];
+            }
+        }
+        Arrays.fill(removed, 0L);
+        used = n;
+        size = n;
+        rebuild(slots.length);
+    }
+
+    /**
+     * Moves the elements over the removed positions and re-indexes them.
+     */
+    private void compact() {
+        retain(item -> true);
+    }
+
+    /**
+     * Re-creates the hash table with the given capacity from the live positions.
+     */
+    private void rebuild(int capacity) {
+        if (slots.length == capacity) {
+            Arrays.fill(slots, 0);
+        } else {
+            slots = new int[capacity];
+            mask = capacity - 1;
+        }
+        for (int p = 0; p < used; p++) {
+            if (isLive(p)) {
+                int slot = hash(elements[p]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = p + 1;
+            }
+        }
+    }
+
+    /**
+     * @return a power-of-two table size that is at most half full with {@code n} elements
+     */
+    private static int tableCapacity(int n) {
+        return Math.max(INITIAL_CAPACITY * 2, Integer.highestOneBit(Math.max(1, n) * 2 - 1) << 1);
+    }
+
+    /**
+     * Spreads nearby values over the table so runs of IDs do not form
+     * long probe chains.
+     */
+    private static int hash(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
     }
-}
\ No newline at end of file
+}
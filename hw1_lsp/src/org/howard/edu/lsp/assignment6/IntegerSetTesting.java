@@ -277,4 +277,98 @@ public class IntegerSetTesting {
         setA.add(2);
         assertEquals("[1, 2]", setA.toString(), "Set with two elements");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test add(int item) and remove(int item): should stay correct across many resizes")
+    void testManyAddsAndRemoves() {
+        for (int i = 0; i < 10000; i++) {
+            setA.add(i * 7);
+        }
+        for (int i = 0; i < 10000; i += 2) {
+            setA.remove(i * 7);
+        }
+        assertEquals(5000, setA.length(), "Length should be 5000 after removing every other element");
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 2 == 1, setA.contains(i * 7), "Only odd multiples of 7 should remain");
+        }
+        // Keep a sliding window of 100 values, so removed positions are reused over and over.
+        for (int i = 0; i < 20000; i++) {
+            setB.add(-i);
+            if (i >= 100) {
+                setB.remove(-(i - 100));
+            }
+        }
+        assertEquals(100, setB.length(), "Length should be the window size");
+        assertEquals(-19999, setB.smallest(), "Window should end at -19999");
+        assertEquals(-19900, setB.largest(), "Window should start at -19900");
+        assertFalse(setB.contains(-19899), "Values that left the window should be gone");
+        assertTrue(setB.contains(-19900), "Values in the window should be present");
+    }
+
+    @Test
+    @DisplayName("Test remove(int item): should keep the other elements of a probe run that wraps around the table")
+    void testRemoveInWrappedProbeRun() {
+        // Up to 8 elements stay in the initial 16-slot table. One value whose
+        // home is slot 14, three whose home is slot 15 and one whose home is
+        // slot 0 form a run that wraps from slot 14 over slots 15, 0, 1 and 2.
+        int[] run = new int[5];
+        int[] homes = {14, 15, 15, 15, 0};
+        for (int i = 0; i < run.length; i++) {
+            int v = i == 0 ? 0 : run[i - 1] + 1;
+            while (home(v, 15) != homes[i]) {
+                v++;
+            }
+            run[i] = v;
+        }
+        for (int removed = 0; removed < run.length; removed++) {
+            IntegerSet set = new IntegerSet();
+            for (int v : run) {
+                set.add(v);
+            }
+            set.remove(run[removed]);
+            assertEquals(4, set.length(), "Length should be 4 after one remove");
+            for (int i = 0; i < run.length; i++) {
+                assertEquals(i != removed, set.contains(run[i]),
+                    "Only element " + removed + " of the run should be gone");
+            }
+            set.add(run[removed]);
+            assertEquals(5, set.length(), "Re-adding the removed element should restore the length");
+        }
+    }
+
+    @Test
+    @DisplayName("Test add(int item) and remove(int item): should keep insertion order when removed space is reclaimed")
+    void testInsertionOrderAfterCompaction() {
+        for (int i = 1; i <= 8; i++) {
+            setA.add(i);
+        }
+        for (int i = 1; i <= 4; i++) {
+            setA.remove(i);
+        }
+        // The array is full and half of it is removed, so this add compacts instead of growing.
+        setA.add(9);
+        assertEquals("[5, 6, 7, 8, 9]", setA.toString(), "Order should be kept after compaction on add");
+
+        for (int i = 1; i <= 10; i++) {
+            setB.add(i);
+        }
+        for (int i = 2; i <= 10; i += 2) {
+            setB.remove(i);
+        }
+        // Removed positions now outnumber the remaining ones, so this remove compacts.
+        setB.remove(1);
+        assertEquals("[3, 5, 7, 9]", setB.toString(), "Order should be kept after compaction on remove");
+        setB.add(2);
+        setB.add(11);
+        assertEquals("[3, 5, 7, 9, 2, 11]", setB.toString(), "New elements should follow the compacted ones");
+        assertTrue(setB.contains(9) && !setB.contains(10), "Lookups should work after compaction");
+    }
+
+    /**
+     * Mirrors IntegerSet's private hash to find the home slot of a value.
+     */
+    private static int home(int value, int mask) {
+        int h = value * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,568 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.Arrays;
+import java.util.OptionalInt;
+
+/**
+ * A set of integers with the same operations as {@link IntegerSet}, kept in
+ * ascending order so that {@link #smallest()} and {@link #largest()} take
+ * constant time and range queries need no scan of the whole set.
+ *
+ * Elements are stored in sorted primitive int blocks of at most
+ * {@value #MAX_BLOCK} values each; a full block is split in two when an
+ * element is added to it. A Fenwick tree over the block sizes gives the
+ * number of elements before any block, so {@link #rank(int)},
+ * {@link #select(int)}, {@link #ceiling(int)}, {@link #floor(int)} and
+ * {@link #countInRange(int, int)} take O(log n) time. Adding or removing an
+ * element shifts at most one block.
+ *
+ * Ranges are inclusive at both ends, so any range of int values can be named.
+ * {@link #toString()} lists elements in ascending order.
+ */
+public class SortedIntegerSet {
+    private static final int MAX_BLOCK = 1024;
+    private static final int INITIAL_BLOCKS = 4;
+
+    // The first 'blockCount' blocks, each holding counts[b] sorted values;
+    // every value in a block is smaller than every value in the next one.
+    private int[][] blocks;
+    private int[] counts;
+    private int blockCount;
+    private int size;
+    // 1-based Fenwick tree over counts
+    private int[] tree;
+
+    /**
+     * Creates an empty set.
+     */
+    public SortedIntegerSet() {
+        clear();
+    }
+
+    /**
+     * Clears the internal representation of the set, removing all elements.
+     */
+    public void clear() {
+        blocks = new int[INITIAL_BLOCKS][];
+        counts = new int[INITIAL_BLOCKS];
+        tree = new int[INITIAL_BLOCKS + 1];
+        blockCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of elements currently in the set.
+     *
+     * @return the int size of the set
+     */
+    public int length() {
+        return size;
+    }
+
+    /**
+     * Compares this SortedIntegerSet to another object for equality.
+     * Two sets are equal if they contain all of the same values.
+     *
+     * @param o the object to compare with
+     * @return true if the objects are equal (same elements), false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SortedIntegerSet other = (SortedIntegerSet) o;
+        if (size != other.size) {
+            return false;
+        }
+        // Walk both block lists in step; the blocks may be split differently.
+        int b = 0;
+        int i = 0;
+        int ob = 0;
+        int oi = 0;
+        for (int k = 0; k < size; k++) {
+            if (blocks[b][i] != other.blocks[ob][oi]) {
+                return false;
+            }
+            if (++i == counts[b]) {
+                b++;
+                i = 0;
+            }
+            if (++oi == other.counts[ob]) {
+                ob++;
+                oi = 0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return the sum of the elements' hash codes, as for {@link java.util.Set}
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int b = 0; b < blockCount; b++) {
+            for (int i = 0; i < counts[b]; i++) {
+                hash += blocks[b][i];
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Checks if the set contains the specified value.
+     *
+     * @param value the integer value to check for
+     * @return true if the value is in the set, false otherwise
+     */
+    public boolean contains(int value) {
+        int b = findBlock(value);
+        return b >= 0 && Arrays.binarySearch(blocks[b], 0, counts[b], value) >= 0;
+    }
+
+    /**
+     * Returns the largest item in the set in constant time.
+     *
+     * @return the maximum integer value in the set
+     * @throws IllegalStateException if the set is empty
+     */
+    public int largest() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Cannot find largest element in an empty set.");
+        }
+        return last(blockCount - 1);
+    }
+
+    /**
+     * Returns the smallest item in the set in constant time.
+     *
+     * @return the minimum integer value in the set
+     * @throws IllegalStateException if the set is empty
+     */
+    public int smallest() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Cannot find smallest element in an empty set.");
+        }
+        return blocks[0][0];
+    }
+
+    /**
+     * Adds an item to the set. If the item is already present,
+     * the set remains unchanged.
+     *
+     * @param item the integer to add
+     */
+    public void add(int item) {
+        if (blockCount == 0) {
+            load(new int[] {item}, 1);
+            return;
+        }
+        int b = findBlock(item);
+        int i = Arrays.binarySearch(blocks[b], 0, counts[b], item);
+        if (i >= 0) {
+            return;
+        }
+        i = -i - 1;
+        if (counts[b] == MAX_BLOCK) {
+            split(b);
+            if (i > counts[b]) {
+                i -= counts[b];
+                b++;
+            }
+        }
+        int[] block = blocks[b];
+        if (counts[b] == block.length) {
+            block = blocks[b] = Arrays.copyOf(block, Math.min(MAX_BLOCK, block.length * 2));
+        }
+        System.arraycopy(block, i, block, i + 1, counts[b] - i);
+        block[i] = item;
+        counts[b]++;
+        size++;
+        updateTree(b, 1);
+    }
+
+    /**
+     * Removes an item from the set. If the item is not present,
+     * the set remains unchanged.
+     *
+     * @param item the integer to remove
+     */
+    public void remove(int item) {
+        int b = findBlock(item);
+        if (b < 0) {
+            return;
+        }
+        int i = Arrays.binarySearch(blocks[b], 0, counts[b], item);
+        if (i < 0) {
+            return;
+        }
+        System.arraycopy(blocks[b], i + 1, blocks[b], i, counts[b] - i - 1);
+        counts[b]--;
+        size--;
+        if (counts[b] == 0) {
+            removeBlock(b);
+        } else {
+            updateTree(b, -1);
+        }
+        // Repack once removals leave the blocks a quarter full on average.
+        if (blockCount > 2 + size / (MAX_BLOCK / 4)) {
+            load(toArray(), size);
+        }
+    }
+
+    /**
+     * Performs a set union operation. This method modifies the current set
+     * to contain all unique elements present in either this set or the other set.
+     *
+     * @param other the SortedIntegerSet to union with this set
+     */
+    public void union(SortedIntegerSet other) {
+        int[] a = toArray();
+        int[] b = other.toArray();
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                result[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                result[n++] = b[j++];
+            } else {
+                result[n++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            result[n++] = a[i++];
+        }
+        while (j < b.length) {
+            result[n++] = b[j++];
+        }
+        load(result, n);
+    }
+
+    /**
+     * Performs a set intersection operation. This method modifies the current set
+     * to contain only the elements that are present in both this set and the other set.
+     *
+     * @param other the SortedIntegerSet to intersect with this set
+     */
+    public void intersect(SortedIntegerSet other) {
+        int[] a = toArray();
+        int[] b = other.toArray();
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length;) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                a[n++] = a[i++];
+                j++;
+            }
+        }
+        load(a, n);
+    }
+
+    /**
+     * Performs a set difference operation (this \ other). This method modifies
+     * the current set to remove any elements that are also found in the other set.
+     *
+     * @param other the SortedIntegerSet whose elements will be removed from this set
+     */
+    public void diff(SortedIntegerSet other) {
+        int[] values = toArray();
+        load(values, minus(values, other.toArray()));
+    }
+
+    /**
+     * Performs a set complement operation (other \ this). This method modifies
+     * the current set to become the set of elements that are in the other set
+     * but not in this set's original state.
+     *
+     * @param other the SortedIntegerSet to compare against
+     */
+    public void complement(SortedIntegerSet other) {
+        int[] values = other.toArray();
+        load(values, minus(values, toArray()));
+    }
+
+    /**
+     * Checks if the set is empty.
+     *
+     * @return true if the set contains no elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of elements smaller than a value, which is also the
+     * index the value has or would have in ascending order.
+     *
+     * @param value the value to rank
+     * @return the number of elements less than {@code value}
+     */
+    public int rank(int value) {
+        int b = findBlock(value);
+        if (b < 0) {
+            return 0;
+        }
+        if (value > last(b)) {
+            return size;
+        }
+        int i = Arrays.binarySearch(blocks[b], 0, counts[b], value);
+        return prefix(b) + (i >= 0 ? i : -i - 1);
+    }
+
+    /**
+     * Returns the element with the given index in ascending order.
+     *
+     * @param index the index, from 0 to {@code length() - 1}
+     * @return the element that has {@code index} smaller elements
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int select(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int b = blockOf(index);
+        return blocks[b][index - prefix(b)];
+    }
+
+    /**
+     * Returns the smallest element greater than or equal to a value.
+     *
+     * @param value the lower bound
+     * @return the element, or an empty result if every element is smaller
+     */
+    public OptionalInt ceiling(int value) {
+        int r = rank(value);
+        return r < size ? OptionalInt.of(select(r)) : OptionalInt.empty();
+    }
+
+    /**
+     * Returns the largest element less than or equal to a value.
+     *
+     * @param value the upper bound
+     * @return the element, or an empty result if every element is larger
+     */
+    public OptionalInt floor(int value) {
+        int r = countAtMost(value);
+        return r > 0 ? OptionalInt.of(select(r - 1)) : OptionalInt.empty();
+    }
+
+    /**
+     * Counts the elements in a range.
+     *
+     * @param lo the smallest value in the range
+     * @param hi the largest value in the range
+     * @return the number of elements {@code e} with {@code lo <= e <= hi}
+     */
+    public int countInRange(int lo, int hi) {
+        if (lo > hi) {
+            return 0;
+        }
+        return countAtMost(hi) - rank(lo);
+    }
+
+    /**
+     * Returns the elements in a range as a new set. Finding the range takes
+     * O(log n); copying it takes time proportional to its size.
+     *
+     * @param lo the smallest value in the range
+     * @param hi the largest value in the range
+     * @return a new set of the elements {@code e} with {@code lo <= e <= hi}
+     */
+    public SortedIntegerSet subSet(int lo, int hi) {
+        SortedIntegerSet result = new SortedIntegerSet();
+        int from = lo > hi ? 0 : rank(lo);
+        int to = lo > hi ? 0 : countAtMost(hi);
+        if (from < to) {
+            int[] values = new int[to - from];
+            int b = blockOf(from);
+            int i = from - prefix(b);
+            for (int n = 0; n < values.length; b++, i = 0) {
+                int count = Math.min(counts[b] - i, values.length - n);
+                System.arraycopy(blocks[b], i, values, n, count);
+                n += count;
+            }
+            result.load(values, values.length);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the elements in ascending order.
+     *
+     * @return a new array holding every element
+     */
+    public int[] toArray() {
+        int[] values = new int[size];
+        int n = 0;
+        for (int b = 0; b < blockCount; b++) {
+            System.arraycopy(blocks[b], 0, values, n, counts[b]);
+            n += counts[b];
+        }
+        return values;
+    }
+
+    /**
+     * Returns a string representation of the set in the format [elem1, elem2, etc].
+     * Elements are listed in ascending order.
+     *
+     * @return a string representation of the set
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private int last(int b) {
+        return blocks[b][counts[b] - 1];
+    }
+
+    /**
+     * @return the number of elements less than or equal to {@code value}
+     */
+    private int countAtMost(int value) {
+        return value == Integer.MAX_VALUE ? size : rank(value + 1);
+    }
+
+    /**
+     * @return the first block whose largest value is at least {@code value},
+     *         the last block if there is none, or -1 if the set is empty
+     */
+    private int findBlock(int value) {
+        int lo = 0;
+        int hi = blockCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (last(mid) < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * @return the number of elements in the blocks before block {@code b}
+     */
+    private int prefix(int b) {
+        int sum = 0;
+        for (int i = b; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return the block holding the element with the given index
+     */
+    private int blockOf(int index) {
+        int position = 0;
+        int remaining = index;
+        for (int step = Integer.highestOneBit(blockCount); step > 0; step >>= 1) {
+            if (position + step <= blockCount && tree[position + step] <= remaining) {
+                position += step;
+                remaining -= tree[position];
+            }
+        }
+        return position;
+    }
+
+    private void updateTree(int b, int delta) {
+        for (int i = b + 1; i <= blockCount; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Rebuilds the Fenwick tree after blocks were added or removed.
+     */
+    private void rebuildTree() {
+        if (tree.length < blocks.length + 1) {
+            tree = new int[blocks.length + 1];
+        } else {
+            Arrays.fill(tree, 0);
+        }
+        for (int i = 1; i <= blockCount; i++) {
+            tree[i] += counts[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= blockCount) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void split(int b) {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+            counts = Arrays.copyOf(counts, blockCount * 2);
+        }
+        System.arraycopy(blocks, b + 1, blocks, b + 2, blockCount - b - 1);
+        System.arraycopy(counts, b + 1, counts, b + 2, blockCount - b - 1);
+        int half = counts[b] / 2;
+        blocks[b + 1] = Arrays.copyOfRange(blocks[b], half, MAX_BLOCK);
+        counts[b + 1] = counts[b] - half;
+        counts[b] = half;
+        blockCount++;
+        rebuildTree();
+    }
+
+    private void removeBlock(int b) {
+        System.arraycopy(blocks, b + 1, blocks, b, blockCount - b - 1);
+        System.arraycopy(counts, b + 1, counts, b, blockCount - b - 1);
+        blocks[--blockCount] = null;
+        rebuildTree();
+    }
+
+    /**
+     * Replaces the contents with the first {@code n} values of a sorted,
+     * duplicate-free array, in half-full blocks so that adds do not split at once.
+     */
+    private void load(int[] sorted, int n) {
+        int per = MAX_BLOCK / 2;
+        int count = (n + per - 1) / per;
+        blocks = new int[Math.max(INITIAL_BLOCKS, count)][];
+        counts = new int[blocks.length];
+        for (int b = 0; b < count; b++) {
+            int from = b * per;
+            int to = Math.min(n, from + per);
+            blocks[b] = Arrays.copyOfRange(sorted, from, Math.max(to, from + 8));
+            counts[b] = to - from;
+        }
+        blockCount = count;
+        size = n;
+        rebuildTree();
+    }
+
+    /**
+     * Moves the values of sorted array {@code a} that are not in sorted
+     * array {@code b} to the front of {@code a}.
+     *
+     * @return the number of values kept
+     */
+    private static int minus(int[] a, int[] b) {
+        int n = 0;
+        int j = 0;
+        for (int i = 0; i < a.length; i++) {
+            while (j < b.length && b[j] < a[i]) {
+                j++;
+            }
+            if (j == b.length || b[j] != a[i]) {
+                a[n++] = a[i];
+            }
+        }
+        return n;
+    }
+}
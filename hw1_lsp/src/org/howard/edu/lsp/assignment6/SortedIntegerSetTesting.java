@@ -0,0 +1,172 @@
+package org.howard.edu.lsp.assignment6;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.OptionalInt;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * JUnit 5 test class for SortedIntegerSet class
+ */
+public class SortedIntegerSetTesting {
+
+    private SortedIntegerSet setA;
+    private SortedIntegerSet setB;
+
+    /**
+     * Sets up two empty SortedIntegerSet objects before each test
+     */
+    @BeforeEach
+    void setUp() {
+        setA = new SortedIntegerSet();
+        setB = new SortedIntegerSet();
+    }
+
+    @Test
+    @DisplayName("Test clear(): set should be empty after clear")
+    void testClear() {
+        setA.add(1);
+        setA.add(2);
+        setA.clear();
+        assertTrue(setA.isEmpty(), "Set should be empty after clear");
+        assertEquals(0, setA.length(), "Length should be 0 after clear");
+    }
+
+    @Test
+    @DisplayName("Test add(int item): should keep elements sorted and ignore duplicates")
+    void testAdd() {
+        setA.add(30);
+        setA.add(-10);
+        setA.add(20);
+        setA.add(20);
+        assertEquals(3, setA.length(), "Adding a duplicate should not increase length");
+        assertEquals("[-10, 20, 30]", setA.toString(), "Elements should be in ascending order");
+    }
+
+    @Test
+    @DisplayName("Test add(int item) and remove(int item): should handle sets larger than one block")
+    void testManyElements() {
+        for (int i = 5000; i > 0; i--) {
+            setA.add(i * 2);
+        }
+        assertEquals(5000, setA.length(), "Length should be 5000");
+        assertTrue(setA.contains(5000), "Set should contain 5000");
+        assertFalse(setA.contains(5001), "Set should not contain 5001");
+        for (int i = 1; i <= 4000; i++) {
+            setA.remove(i * 2);
+        }
+        assertEquals(1000, setA.length(), "Length should be 1000 after removals");
+        assertEquals(8002, setA.smallest(), "Smallest element should be 8002");
+        assertEquals(10000, setA.largest(), "Largest element should be 10000");
+        assertEquals(8100, setA.select(49), "Element 49 should be 8100");
+    }
+
+    @Test
+    @DisplayName("Test equals(Object o): should be true for sets with same elements, regardless of order")
+    void testEquals() {
+        setA.add(1);
+        setA.add(2);
+        setB.add(2);
+        setB.add(1);
+        assertTrue(setA.equals(setB), "Sets with same elements in different order should be equal");
+        assertEquals(setA.hashCode(), setB.hashCode(), "Equal sets should have equal hash codes");
+        setB.add(3);
+        assertFalse(setA.equals(setB), "Sets with different sizes should not be equal");
+        assertFalse(setA.equals(null), "Set should not be equal to null");
+    }
+
+    @Test
+    @DisplayName("Test largest() and smallest(): should return the extreme values")
+    void testLargestAndSmallest() {
+        setA.add(10);
+        setA.add(5);
+        setA.add(20);
+        assertEquals(20, setA.largest(), "Largest element should be 20");
+        assertEquals(5, setA.smallest(), "Smallest element should be 5");
+    }
+
+    @Test
+    @DisplayName("Test largest() and smallest(): should throw IllegalStateException if set is empty")
+    void testLargestAndSmallestThrowException() {
+        Exception largest = assertThrows(IllegalStateException.class, () -> {
+            setA.largest();
+        });
+        assertEquals("Cannot find largest element in an empty set.", largest.getMessage());
+        Exception smallest = assertThrows(IllegalStateException.class, () -> {
+            setA.smallest();
+        });
+        assertEquals("Cannot find smallest element in an empty set.", smallest.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test rank(int value) and select(int index): should be inverses")
+    void testRankAndSelect() {
+        setA.add(10);
+        setA.add(20);
+        setA.add(30);
+        assertEquals(0, setA.rank(5), "Nothing is smaller than 5");
+        assertEquals(1, setA.rank(20), "One element is smaller than 20");
+        assertEquals(2, setA.rank(25), "Two elements are smaller than 25");
+        assertEquals(3, setA.rank(Integer.MAX_VALUE), "Every element is smaller than Integer.MAX_VALUE");
+        assertEquals(30, setA.select(2), "Element 2 should be 30");
+        assertEquals(1, setA.rank(setA.select(1)), "rank(select(1)) should be 1");
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            setA.select(3);
+        });
+    }
+
+    @Test
+    @DisplayName("Test ceiling(int value) and floor(int value): should find the nearest elements")
+    void testCeilingAndFloor() {
+        setA.add(10);
+        setA.add(20);
+        assertEquals(OptionalInt.of(10), setA.ceiling(10), "Ceiling of 10 should be 10");
+        assertEquals(OptionalInt.of(20), setA.ceiling(11), "Ceiling of 11 should be 20");
+        assertEquals(OptionalInt.empty(), setA.ceiling(21), "Nothing is at least 21");
+        assertEquals(OptionalInt.of(10), setA.floor(19), "Floor of 19 should be 10");
+        assertEquals(OptionalInt.of(20), setA.floor(Integer.MAX_VALUE), "Floor of Integer.MAX_VALUE should be 20");
+        assertEquals(OptionalInt.empty(), setA.floor(9), "Nothing is at most 9");
+    }
+
+    @Test
+    @DisplayName("Test countInRange(int lo, int hi) and subSet(int lo, int hi): ranges should include both ends")
+    void testRanges() {
+        for (int i = 1; i <= 10; i++) {
+            setA.add(i * 10);
+        }
+        assertEquals(3, setA.countInRange(20, 40), "20, 30 and 40 are in [20, 40]");
+        assertEquals(0, setA.countInRange(41, 49), "Nothing is in [41, 49]");
+        assertEquals(0, setA.countInRange(40, 20), "An empty range should count 0");
+        assertEquals(10, setA.countInRange(Integer.MIN_VALUE, Integer.MAX_VALUE), "Every element is in the full range");
+        assertEquals("[20, 30, 40]", setA.subSet(15, 40).toString(), "subSet(15, 40) should be [20, 30, 40]");
+        assertTrue(setA.subSet(41, 49).isEmpty(), "subSet(41, 49) should be empty");
+        assertEquals(10, setA.length(), "subSet should not change the set");
+    }
+
+    @Test
+    @DisplayName("Test union, intersect, diff and complement: should match the IntegerSet results")
+    void testSetOperations() {
+        setA.add(1);
+        setA.add(2);
+        setA.add(3);
+        setB.add(2);
+        setB.add(3);
+        setB.add(4);
+        SortedIntegerSet union = setA.subSet(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        union.union(setB);
+        assertEquals("[1, 2, 3, 4]", union.toString(), "Union should be [1, 2, 3, 4]");
+        SortedIntegerSet intersection = setA.subSet(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        intersection.intersect(setB);
+        assertEquals("[2, 3]", intersection.toString(), "Intersection should be [2, 3]");
+        SortedIntegerSet difference = setA.subSet(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        difference.diff(setB);
+        assertEquals("[1]", difference.toString(), "Difference should be [1]");
+        setA.complement(setB);
+        assertEquals("[4]", setA.toString(), "Complement should be [4]");
+        setB.complement(setB);
+        assertTrue(setB.isEmpty(), "Complement with self should result in an empty set");
+    }
+}